@@ -5,11 +5,13 @@ import com.google.common.io.BaseEncoding;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.MessageDigest;
 
 /**
  * Cryptography utils
  */
 public class Crypto {
+    private static final MacPool HMAC_SHA1 = new MacPool("HmacSHA1", MacPool.DEFAULT_MAX_IDLE);
 
     /**
      * Sign a message with a key
@@ -22,8 +24,8 @@ public class Crypto {
             return message;
         }
 
+        Mac mac = HMAC_SHA1.borrow();
         try {
-            Mac mac = Mac.getInstance("HmacSHA1");
             SecretKeySpec signingKey = new SecretKeySpec(key, "HmacSHA1");
             mac.init(signingKey);
             byte[] messageBytes = message.getBytes(Charsets.UTF_8);
@@ -31,6 +33,23 @@ public class Crypto {
             return BaseEncoding.base64().encode(result);
         } catch (Exception ex) {
             throw new RuntimeException(ex);
+        } finally {
+            HMAC_SHA1.release(mac);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Compares two strings in a time which doesn't depend on the position of their first difference, to be used when
+     * checking signatures so that they can't be guessed with timing attacks.
+     *
+     * @param expected the expected value, eg the computed signature
+     * @param actual the value to check, eg the signature sent by a client
+     * @return true if both strings are equal
+     */
+    public static boolean constantTimeEquals(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        return MessageDigest.isEqual(expected.getBytes(Charsets.UTF_8), actual.getBytes(Charsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package restx.common;
+
+import com.google.common.base.Optional;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of Mac instances for a given algorithm, optionally initialized with a key.
+ *
+ * Mac instances are not thread safe, and costly to get from the security providers. They are borrowed for each
+ * computation and released afterwards, so that they are reused whatever the threads computing them: requests
+ * processed on virtual threads run each on a new thread.
+ */
+public class MacPool {
+    /**
+     * A default number of idle instances: Mac computations don't block, so concurrent borrowers are bounded by the
+     * number of processors.
+     */
+    public static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final String algorithm;
+    private final Optional<Key> key;
+    private final BlockingQueue<Mac> idle;
+
+    /**
+     * Creates a pool of Mac instances to be initialized by borrowers.
+     *
+     * @param algorithm the Mac algorithm
+     * @param maxIdle the maximum number of idle instances kept in the pool
+     */
+    public MacPool(String algorithm, int maxIdle) {
+        this(algorithm, Optional.<Key>absent(), maxIdle);
+    }
+
+    /**
+     * Creates a pool of Mac instances initialized with a key.
+     *
+     * @param algorithm the Mac algorithm
+     * @param key the key used to initialize instances
+     * @param maxIdle the maximum number of idle instances kept in the pool
+     */
+    public MacPool(String algorithm, Key key, int maxIdle) {
+        this(algorithm, Optional.of(key), maxIdle);
+    }
+
+    private MacPool(String algorithm, Optional<Key> key, int maxIdle) {
+        this.algorithm = algorithm;
+        this.key = key;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    /**
+     * @return an idle Mac instance, or a new one if none is idle
+     */
+    public Mac borrow() {
+        Mac mac = idle.poll();
+        if (mac != null) {
+            return mac;
+        }
+        try {
+            mac = Mac.getInstance(algorithm);
+            if (key.isPresent()) {
+                mac.init(key.get());
+            }
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gives back a borrowed instance, which must not be used anymore by the caller.
+     *
+     * @param mac the borrowed instance
+     */
+    public void release(Mac mac) {
+        // instances initialized by borrowers are initialized again before their next use
+        mac.reset();
+        idle.offer(mac);
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,13 @@
+package restx.common.metrics.api;
+
+public interface Counter {
+
+    void inc();
+
+    void inc(long n);
+
+    void dec();
+
+    long getCount();
+
+}
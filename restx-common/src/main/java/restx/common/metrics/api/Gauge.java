@@ -0,0 +1,10 @@
+package restx.common.metrics.api;
+
+/**
+ * A metric whose value is read on demand, from the component it measures.
+ */
+public interface Gauge<T> {
+
+    T getValue();
+
+}
@@ -2,4 +2,11 @@ package restx.common.metrics.api;
 
 public interface MetricRegistry {
     Timer timer(String name);
+
+    Counter counter(String name);
+
+    /**
+     * Registers a gauge, replacing any gauge previously registered with the same name.
+     */
+    <T> void gauge(String name, Gauge<T> gauge);
 }
@@ -1,7 +1,17 @@
 package restx.common.metrics.api;
 
+import java.util.concurrent.TimeUnit;
+
 public interface Timer {
 
     Monitor time();
 
+    /**
+     * Records a duration measured by the caller, useful when the timed work is not a single block of code.
+     *
+     * Does nothing by default, implementations able to record durations should override it.
+     */
+    default void update(long duration, TimeUnit unit) {
+    }
+
 }
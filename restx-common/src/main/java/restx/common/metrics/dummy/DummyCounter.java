@@ -0,0 +1,32 @@
+package restx.common.metrics.dummy;
+
+import restx.common.metrics.api.Counter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DummyCounter implements Counter {
+    private final AtomicLong count = new AtomicLong();
+
+    public DummyCounter(String name) {
+    }
+
+    @Override
+    public void inc() {
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void inc(long n) {
+        count.addAndGet(n);
+    }
+
+    @Override
+    public void dec() {
+        count.decrementAndGet();
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+}
@@ -1,5 +1,7 @@
 package restx.common.metrics.dummy;
 
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.Gauge;
 import restx.common.metrics.api.MetricRegistry;
 import restx.common.metrics.api.Timer;
 
@@ -8,4 +10,13 @@ public class DummyMetricRegistry implements MetricRegistry {
     public Timer timer(String name) {
         return new DummyTimer(name);
     }
+
+    @Override
+    public Counter counter(String name) {
+        return new DummyCounter(name);
+    }
+
+    @Override
+    public <T> void gauge(String name, Gauge<T> gauge) {
+    }
 }
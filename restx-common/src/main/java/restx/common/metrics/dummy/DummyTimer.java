@@ -3,6 +3,8 @@ package restx.common.metrics.dummy;
 import restx.common.metrics.api.Monitor;
 import restx.common.metrics.api.Timer;
 
+import java.util.concurrent.TimeUnit;
+
 public class DummyTimer implements Timer {
 
     public DummyTimer(String name) {
@@ -12,4 +14,8 @@ public class DummyTimer implements Timer {
     public Monitor time() {
         return new DummyMonitor();
     }
+
+    @Override
+    public void update(long duration, TimeUnit unit) {
+    }
 }
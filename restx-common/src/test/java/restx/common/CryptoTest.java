@@ -20,4 +20,13 @@ public class CryptoTest {
                 .isEqualTo("yIDXrtZ71qCfHnUNvlYSS//0YPE=")
                 .isEqualTo(Crypto.sign("My message to sign", "my grain of salt".getBytes(Charsets.UTF_8.name())));
     }
+
+    @Test
+    public void testConstantTimeEquals() throws Exception {
+        assertThat(Crypto.constantTimeEquals("yIDXrtZ71qCfHnUNvlYSS//0YPE=", "yIDXrtZ71qCfHnUNvlYSS//0YPE=")).isTrue();
+        assertThat(Crypto.constantTimeEquals("yIDXrtZ71qCfHnUNvlYSS//0YPE=", "yIDXrtZ71qCfHnUNvlYSS//0YPF=")).isFalse();
+        assertThat(Crypto.constantTimeEquals("yIDXrtZ71qCfHnUNvlYSS//0YPE=", "yIDXrtZ71qCf")).isFalse();
+        assertThat(Crypto.constantTimeEquals("", "a")).isFalse();
+        assertThat(Crypto.constantTimeEquals("", "")).isTrue();
+    }
 }
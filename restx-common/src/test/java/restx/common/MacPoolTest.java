@@ -0,0 +1,46 @@
+package restx.common;
+
+import org.junit.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MacPoolTest {
+    @Test
+    public void should_reuse_released_instances_from_other_threads() throws Exception {
+        final MacPool pool = new MacPool("HmacSHA256", new SecretKeySpec(new byte[32], "HmacSHA256"), 2);
+        final Mac mac = pool.borrow();
+        byte[] expected = mac.doFinal(new byte[] {1, 2, 3});
+        pool.release(mac);
+
+        final AtomicReference<Mac> borrowed = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                borrowed.set(pool.borrow());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(borrowed.get()).isSameAs(mac);
+        assertThat(borrowed.get().doFinal(new byte[] {1, 2, 3})).isEqualTo(expected);
+    }
+
+    @Test
+    public void should_bound_idle_instances() throws Exception {
+        MacPool pool = new MacPool("HmacSHA1", 2);
+        Mac first = pool.borrow();
+        Mac second = pool.borrow();
+        Mac third = pool.borrow();
+
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+
+        assertThat(pool.idleCount()).isEqualTo(2);
+    }
+}
@@ -32,6 +32,7 @@ import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static restx.annotations.processor.TypeHelper.futureUnderlyingTypeOf;
 import static restx.annotations.processor.TypeHelper.getTypeExpressionFor;
 import static restx.annotations.processor.TypeHelper.toTypeDescription;
 
@@ -515,11 +516,12 @@ public class RestxAnnotationProcessor extends RestxAbstractProcessor {
                     .put("method", resourceMethod.httpMethod)
                     .put("path", resourceMethod.path.replace("\\", "\\\\"))
                     .put("resource", resourceClass.name)
-                    .put("securityCheck", "securityManager.check(request, match, " + resourceMethod.permission + ");")
+                    .put("permission", resourceMethod.permission)
+                    .put("securityCheck", "securityManager.check(request, match, permission);")
                     .put("queryParametersDefinition", Joiner.on(",\n").join(queryParametersDefinition))
                     .put("throwsIOException", resourceMethod.throwsIOException())
                     .put("call", call)
-                    .put("responseClass", toTypeDescription(resourceMethod.returnType))
+                    .put("responseClass", toTypeDescription(futureUnderlyingTypeOf(resourceMethod.returnType)))
                     .put("sourceLocation", resourceMethod.sourceLocation)
                     .put("parametersDescription", Joiner.on("\n").join(parametersDescription))
                     .put("annotationDescriptions", resourceMethod.annotationDescriptions)
@@ -528,7 +530,7 @@ public class RestxAnnotationProcessor extends RestxAbstractProcessor {
                     .put("inEntitySchemaKey", toSchemaKey(inEntityClass))
                     .put("outEntity", outEntity)
                     .put("outEntityType", getTypeExpressionFor(resourceMethod.returnType))
-                    .put("outEntitySchemaKey", toSchemaKey(resourceMethod.returnType))
+                    .put("outEntitySchemaKey", toSchemaKey(futureUnderlyingTypeOf(resourceMethod.returnType)))
                     .put("inContentType",
                             resourceMethod.inContentType.isPresent() ?
                                     String.format("Optional.of(\"%s\")", resourceMethod.inContentType.get()) : "Optional.<String>absent()")
@@ -544,7 +546,7 @@ public class RestxAnnotationProcessor extends RestxAbstractProcessor {
 
 
     private String toSchemaKey(String type) {
-        Pattern p = Pattern.compile("java\\.lang\\.Iterable<(.+)>");
+        Pattern p = Pattern.compile("(?:java\\.lang\\.Iterable|java\\.util\\.Iterator|java\\.util\\.stream\\.Stream)<(.+)>");
         Matcher m = p.matcher(type);
         if (m.matches()) {
             type =  m.group(1);
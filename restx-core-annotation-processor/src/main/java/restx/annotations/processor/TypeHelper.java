@@ -18,13 +18,19 @@ import java.util.regex.Pattern;
  */
 public class TypeHelper {
     private static ImmutableList<String> PARSED_TYPES_DELIMITERS = ImmutableList.of(",", "<", ">");
-    private static ImmutableMap<String, String> TYPE_DESCRIPTION_ALIASES = ImmutableMap.of(
-            Integer.class.getCanonicalName(), "int",
-            Iterable.class.getCanonicalName(), "LIST",
-            List.class.getCanonicalName(), "LIST",
-            Map.class.getCanonicalName(), "MAP");
+    private static ImmutableMap<String, String> TYPE_DESCRIPTION_ALIASES = ImmutableMap.<String, String>builder()
+            .put(Integer.class.getCanonicalName(), "int")
+            .put(Iterable.class.getCanonicalName(), "LIST")
+            .put(Iterator.class.getCanonicalName(), "LIST")
+            .put("java.util.stream.Stream", "LIST")
+            .put(List.class.getCanonicalName(), "LIST")
+            .put(Map.class.getCanonicalName(), "MAP")
+            .build();
     private static Pattern guavaOptionalPattern = Pattern.compile("\\Q" + Optional.class.getName() + "<\\E(.+)>");
     private static Pattern java8OptionalPattern = Pattern.compile("\\Qjava.util.Optional<\\E(.+)>");
+    private static Pattern futurePattern = Pattern.compile(
+            "(?:\\Qjava.util.concurrent.CompletableFuture\\E|\\Qjava.util.concurrent.CompletionStage\\E" +
+                    "|\\Qcom.google.common.util.concurrent.ListenableFuture\\E)<(.+)>");
     private static Set<String> RAW_TYPES_STR = Sets.newHashSet("byte", "short", "int", "long", "float", "double", "boolean", "char");
 
     private static class ParsedType {
@@ -197,4 +203,17 @@ public class TypeHelper {
         return OptionalMatchingType.none(type);
     }
 
+    /**
+     * Returns the type of the entity held by a future type, as returned by asynchronous resource methods.
+     *
+     * @param type a resource method return type
+     * @return the future type parameter if type is a future type, type itself otherwise
+     */
+    public static String futureUnderlyingTypeOf(String type) {
+        Matcher futureMatcher = futurePattern.matcher(type);
+        if (futureMatcher.matches()) {
+            return futureMatcher.group(1);
+        }
+        return type;
+    }
 }
@@ -31,6 +31,10 @@ public class TypeHelperTest {
                         "Types.newParameterizedType(java.lang.Iterable.class, java.lang.String.class)", "LIST[string]" },
                 {"java.util.List<java.lang.String>",
                         "Types.newParameterizedType(java.util.List.class, java.lang.String.class)", "LIST[string]" },
+                {"java.util.Iterator<java.lang.String>",
+                        "Types.newParameterizedType(java.util.Iterator.class, java.lang.String.class)", "LIST[string]" },
+                {"java.util.stream.Stream<java.lang.String>",
+                        "Types.newParameterizedType(java.util.stream.Stream.class, java.lang.String.class)", "LIST[string]" },
                 {"java.util.Map<java.lang.String, java.lang.Integer>",
                         "Types.newParameterizedType(java.util.Map.class, java.lang.String.class, java.lang.Integer.class)",
                         "MAP[string, int]" },
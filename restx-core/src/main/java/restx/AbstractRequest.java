@@ -16,10 +16,19 @@ import java.util.Map;
 /**
  * Date: 15/11/13
  * Time: 18:38
+ *
+ * Attributes derived from the request headers (scheme, host, client address) are computed lazily, and then
+ * memoized for the lifetime of the request: they are read many times per request, by filters, MDC and logging.
  */
 public abstract class AbstractRequest implements RestxRequest {
     protected final HttpSettings httpSettings;
 
+    // memoized derived attributes, null until first computed
+    private String scheme;
+    private String host;
+    private String clientAddress;
+    private boolean proxyRequestChecked;
+
     protected AbstractRequest(HttpSettings httpSettings) {
         this.httpSettings = httpSettings;
     }
@@ -62,6 +71,13 @@ public abstract class AbstractRequest implements RestxRequest {
     }
 
     protected String getHost() {
+        if (host == null) {
+            host = computeHost();
+        }
+        return host;
+    }
+
+    private String computeHost() {
         Optional<String> host = httpSettings.host();
         if (host.isPresent()) {
             return host.get();
@@ -83,6 +99,13 @@ public abstract class AbstractRequest implements RestxRequest {
     }
 
     protected String getScheme() {
+        if (scheme == null) {
+            scheme = computeScheme();
+        }
+        return scheme;
+    }
+
+    private String computeScheme() {
         Optional<String> proto = httpSettings.scheme().or(getHeader("X-Forwarded-Proto"));
         if (proto.isPresent()) {
             return proto.get();
@@ -98,8 +121,15 @@ public abstract class AbstractRequest implements RestxRequest {
 
     @Override
     public String getClientAddress() {
-        // see http://en.wikipedia.org/wiki/X-Forwarded-For
         checkProxyRequest();
+        if (clientAddress == null) {
+            clientAddress = computeClientAddress();
+        }
+        return clientAddress;
+    }
+
+    private String computeClientAddress() {
+        // see http://en.wikipedia.org/wiki/X-Forwarded-For
         Optional<String> xff = getHeader("X-Forwarded-For");
         if (xff.isPresent()) {
             return Iterables.getFirst(Splitter.on(",").trimResults().split(xff.get()),
@@ -110,6 +140,9 @@ public abstract class AbstractRequest implements RestxRequest {
     }
 
     protected void checkProxyRequest() {
+        if (proxyRequestChecked) {
+            return;
+        }
         if (getHeader("X-Forwarded-Proto").isPresent()) {
             String localClientAddress = getLocalClientAddress();
             Collection<String> forwardedSupport = httpSettings.forwardedSupport();
@@ -124,6 +157,8 @@ public abstract class AbstractRequest implements RestxRequest {
                                 "  -Drestx.http.XForwardedSupport=all");
             }
         }
+        // unauthorized proxy requests are not memoized, they are rejected on each call
+        proxyRequestChecked = true;
     }
 
     /**
@@ -1,17 +1,28 @@
 package restx;
 
-import com.google.common.io.ByteSource;
-import com.google.common.io.ByteStreams;
+import com.google.common.base.Optional;
 import com.google.common.io.Files;
+import org.joda.time.DateTime;
+import restx.http.ByteRange;
+import restx.http.ConditionalRequestFilter;
 import restx.http.HTTP;
 import restx.http.HttpStatus;
+import restx.http.ResourceValidator;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Date: 28/11/13
@@ -49,9 +60,7 @@ public class FSRouter {
                         }
 
                         if (file.isFile()) {
-                            resp.setStatus(HttpStatus.OK);
-                            resp.setContentType(HTTP.getContentTypeFromExtension(file.getName()).or("application/binary"));
-                            Files.asByteSource(file).copyTo(resp.getOutputStream());
+                            serveFile(file, req, resp);
                         } else if (file.isDirectory() && allowDirectoryListing) {
                             resp.setStatus(HttpStatus.OK);
                             resp.setContentType("application/json");
@@ -153,6 +162,90 @@ public class FSRouter {
                 .build();
     }
 
+    /**
+     * Sends a file, or the requested ranges of it.
+     *
+     * The file content is sent without copying it to the heap: with the server zero copy file transfer when available
+     * (see RestxResponse#getFileTransfer()), with FileChannel.transferTo to the response output stream otherwise.
+     */
+    private static void serveFile(File file, RestxRequest req, RestxResponse resp) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        ResourceValidator validator = new ResourceValidator(
+                Optional.of("W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\""),
+                Optional.of(new DateTime(lastModified)));
+        String contentType = HTTP.getContentTypeFromExtension(file.getName()).or("application/binary");
+
+        resp.setHeader("Accept-Ranges", "bytes");
+        ConditionalRequestFilter.writeValidators(resp, validator);
+        if (ConditionalRequestFilter.isNotModified(req, validator)) {
+            resp.setStatus(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+
+        Optional<String> rangeHeader = req.getHeader("Range");
+        Optional<List<ByteRange>> ranges = rangeHeader.isPresent()
+                && ConditionalRequestFilter.isRangeApplicable(req, validator)
+                ? ByteRange.parse(rangeHeader.get(), length) : Optional.<List<ByteRange>>absent();
+
+        if (!ranges.isPresent()) {
+            resp.setStatus(HttpStatus.OK);
+            resp.setContentType(contentType);
+            sendFileRegion(file.toPath(), 0, length, resp);
+        } else if (ranges.get().isEmpty()) {
+            resp.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            resp.setHeader("Content-Range", "bytes */" + length);
+        } else if (ranges.get().size() == 1) {
+            ByteRange range = ranges.get().get(0);
+            resp.setStatus(HttpStatus.PARTIAL_CONTENT);
+            resp.setContentType(contentType);
+            resp.setHeader("Content-Range", range.toContentRange(length));
+            sendFileRegion(file.toPath(), range.getFirst(), range.getLength(), resp);
+        } else {
+            String boundary = "RESTX_BYTERANGES_" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+            resp.setStatus(HttpStatus.PARTIAL_CONTENT);
+            resp.setContentType("multipart/byteranges; boundary=" + boundary);
+            OutputStream outputStream = resp.getOutputStream();
+            WritableByteChannel out = Channels.newChannel(outputStream);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                for (ByteRange range : ranges.get()) {
+                    outputStream.write(("\r\n--" + boundary + "\r\n"
+                            + "Content-Type: " + contentType + "\r\n"
+                            + "Content-Range: " + range.toContentRange(length) + "\r\n\r\n")
+                            .getBytes(StandardCharsets.ISO_8859_1));
+                    transfer(channel, range.getFirst(), range.getLength(), out);
+                }
+            }
+            outputStream.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private static void sendFileRegion(Path file, long position, long count, RestxResponse resp) throws IOException {
+        Optional<RestxFileTransfer> fileTransfer = resp.getFileTransfer();
+        if (fileTransfer.isPresent()) {
+            // the response is not wrapped, the content length is the one of the region
+            resp.setHeader("Content-Length", String.valueOf(count));
+            fileTransfer.get().transferFile(file, position, count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, position, count, Channels.newChannel(resp.getOutputStream()));
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel out)
+            throws IOException {
+        while (count > 0) {
+            long transferred = channel.transferTo(position, count, out);
+            if (transferred <= 0) {
+                throw new IOException("file truncated while being sent, " + count + " bytes missing");
+            }
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
     public FSRouter readonly() {
         readonly = true;
         return this;
@@ -22,7 +22,63 @@ public interface HttpSettings {
     @SettingsKey(key = "restx.http.gzip.paths", defaultValue = "/{s:.+}")
     Collection<String> gzipPaths();
 
+    @SettingsKey(key = "restx.http.gzip.level", defaultValue = "6",
+            doc="The gzip compression level, from 1 (fastest) to 9 (smallest)")
+    int gzipLevel();
+
+    @SettingsKey(key = "restx.http.gzip.minSize", defaultValue = "1024",
+            doc="The size in bytes under which responses are not compressed")
+    int gzipMinSize();
+
+    @SettingsKey(key = "restx.http.gzip.deflaterPoolSize", defaultValue = "32",
+            doc="The maximum number of idle compressors kept for reuse")
+    int gzipDeflaterPoolSize();
+
     @SettingsKey(key = "restx.http.decode.url.path.params", defaultValue = "true",
             doc="Will issue a URLDecoder.decode() on every PATH parameters if true")
     boolean decodeURLPathParams();
+
+    @SettingsKey(key = "restx.http.asyncTimeout", defaultValue = "30000",
+            doc="The time in milliseconds after which suspended asynchronous requests are answered with a 503")
+    long asyncTimeout();
+
+    @SettingsKey(key = "restx.http.virtualThreads", defaultValue = "false",
+            doc="Run each request on a virtual thread in embedded servers, when supported by the java runtime")
+    boolean virtualThreads();
+
+    @SettingsKey(key = "restx.http.virtualThreads.maxConcurrency", defaultValue = "1000",
+            doc="The maximum number of requests processed concurrently on virtual threads")
+    int virtualThreadsMaxConcurrency();
+
+    @SettingsKey(key = "restx.http.concurrencyLimit", defaultValue = "false",
+            doc="Reject requests with a 503 when the adaptive limit of requests in flight is reached")
+    boolean concurrencyLimit();
+
+    @SettingsKey(key = "restx.http.concurrencyLimit.perRoute", defaultValue = "false",
+            doc="Use a concurrency limit per route rather than a global limit")
+    boolean concurrencyLimitPerRoute();
+
+    @SettingsKey(key = "restx.http.concurrencyLimit.initial", defaultValue = "100",
+            doc="The initial number of requests allowed in flight, adapted afterwards from observed latency")
+    int concurrencyLimitInitial();
+
+    @SettingsKey(key = "restx.http.concurrencyLimit.min", defaultValue = "10",
+            doc="The lower bound of the adaptive concurrency limit")
+    int concurrencyLimitMin();
+
+    @SettingsKey(key = "restx.http.concurrencyLimit.max", defaultValue = "1000",
+            doc="The upper bound of the adaptive concurrency limit")
+    int concurrencyLimitMax();
+
+    @SettingsKey(key = "restx.http.concurrencyLimit.retryAfter", defaultValue = "1",
+            doc="The Retry-After value, in seconds, sent with rejected requests")
+    int concurrencyLimitRetryAfter();
+
+    @SettingsKey(key = "restx.http.rateLimit.maxKeys", defaultValue = "10000",
+            doc="The maximum number of clients tracked per @RateLimited route")
+    int rateLimitMaxKeys();
+
+    @SettingsKey(key = "restx.http.responseCache.maxSizeKB", defaultValue = "65536",
+            doc="The maximum size in kilobytes of the responses cached for @Cached routes")
+    int responseCacheMaxSizeKB();
 }
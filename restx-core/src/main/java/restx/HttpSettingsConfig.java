@@ -40,8 +40,78 @@ public class HttpSettingsConfig implements HttpSettings {
                 config.getString("restx.http.gzip.paths").or("/{s:.+}"));
     }
 
+    @Override
+    public int gzipLevel() {
+        return config.getInt("restx.http.gzip.level").or(6).intValue();
+    }
+
+    @Override
+    public int gzipMinSize() {
+        return config.getInt("restx.http.gzip.minSize").or(1024).intValue();
+    }
+
+    @Override
+    public int gzipDeflaterPoolSize() {
+        return config.getInt("restx.http.gzip.deflaterPoolSize").or(32).intValue();
+    }
+
     @Override
     public boolean decodeURLPathParams() {
         return config.getBoolean("restx.http.decode.url.path.params").or(Boolean.TRUE).booleanValue();
     }
+
+    @Override
+    public long asyncTimeout() {
+        return config.getLong("restx.http.asyncTimeout").or(30000L).longValue();
+    }
+
+    @Override
+    public boolean virtualThreads() {
+        return config.getBoolean("restx.http.virtualThreads").or(Boolean.FALSE).booleanValue();
+    }
+
+    @Override
+    public int virtualThreadsMaxConcurrency() {
+        return config.getInt("restx.http.virtualThreads.maxConcurrency").or(1000).intValue();
+    }
+
+    @Override
+    public boolean concurrencyLimit() {
+        return config.getBoolean("restx.http.concurrencyLimit").or(Boolean.FALSE).booleanValue();
+    }
+
+    @Override
+    public boolean concurrencyLimitPerRoute() {
+        return config.getBoolean("restx.http.concurrencyLimit.perRoute").or(Boolean.FALSE).booleanValue();
+    }
+
+    @Override
+    public int concurrencyLimitInitial() {
+        return config.getInt("restx.http.concurrencyLimit.initial").or(100).intValue();
+    }
+
+    @Override
+    public int concurrencyLimitMin() {
+        return config.getInt("restx.http.concurrencyLimit.min").or(10).intValue();
+    }
+
+    @Override
+    public int concurrencyLimitMax() {
+        return config.getInt("restx.http.concurrencyLimit.max").or(1000).intValue();
+    }
+
+    @Override
+    public int concurrencyLimitRetryAfter() {
+        return config.getInt("restx.http.concurrencyLimit.retryAfter").or(1).intValue();
+    }
+
+    @Override
+    public int rateLimitMaxKeys() {
+        return config.getInt("restx.http.rateLimit.maxKeys").or(10000).intValue();
+    }
+
+    @Override
+    public int responseCacheMaxSizeKB() {
+        return config.getInt("restx.http.responseCache.maxSizeKB").or(65536).intValue();
+    }
 }
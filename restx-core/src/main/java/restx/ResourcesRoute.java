@@ -4,16 +4,30 @@ import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Resources;
+import org.joda.time.DateTime;
 import restx.common.MoreResources;
+import restx.http.ConditionalRequestFilter;
+import restx.http.ExpiresHeaderFilter;
 import restx.http.HTTP;
 import restx.http.HttpStatus;
+import restx.http.ResourceValidator;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -24,8 +38,25 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <pre>new ResourcesRoute("myResources", "web", "static")</pre>
  * We will consider every urls matching /web/* will serve files into 'static' classpath's directory
  * For instance, /web/foo/bar.json URL will serve classpath:static/foo/bar.json
+ *
+ * When a precompressed version of a resource exists next to it (eg static/foo/bar.json.gz or
+ * static/foo/bar.json.br) and the client accepts its encoding, it is served instead with a Content-Encoding header.
+ * Responses for such resources have a Vary: Accept-Encoding header, whatever the representation served.
+ *
+ * Outside of DEV mode, resources are loaded once and kept in memory (up to a bounded size), and served with ETag and
+ * Last-Modified headers: conditional requests are answered with a 304 status.
  */
 public class ResourcesRoute implements RestxRoute, RestxHandler {
+    /**
+     * Encodings of precompressed resources, which are served instead of the resource when they exist next to it and
+     * the client accepts them, by order of preference.
+     */
+    private static final ImmutableMap<String, String> PRECOMPRESSED_EXTENSIONS = ImmutableMap.of(
+            "br", ".br",
+            "gzip", ".gz");
+    private static final long MAX_CACHE_SIZE = 32 * 1024 * 1024;
+    private static final long MAX_CACHED_RESOURCE_SIZE = 1024 * 1024;
+
     /**
      * Resource name, for toString only.
      */
@@ -42,6 +73,25 @@ public class ResourcesRoute implements RestxRoute, RestxHandler {
     private final String baseResourcePath;
     private final ImmutableMap<String, String> aliases;
     private final ImmutableList<CachedResourcePolicy> cachedResourcePolicies;
+    /**
+     * Resources already looked up, by name, to avoid looking for them on each request: present when found, absent
+     * for precompressed resources known to be missing. Missing resources are not remembered otherwise, as their
+     * names come from requests.
+     * Not used in DEV mode, where resources may appear at any time.
+     */
+    private final ConcurrentMap<String, Optional<URL>> resources = new ConcurrentHashMap<>();
+    /**
+     * Content of resources already served, by resource name. Not used in DEV mode.
+     */
+    private final Cache<String, CachedResource> cachedResources = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHE_SIZE)
+            .weigher(new Weigher<String, CachedResource>() {
+                @Override
+                public int weigh(String resourceName, CachedResource cachedResource) {
+                    return cachedResource.content.length;
+                }
+            })
+            .build();
 
     public static class ResourceInfo {
         final String contentType;
@@ -61,6 +111,31 @@ public class ResourcesRoute implements RestxRoute, RestxHandler {
         }
     }
 
+    /**
+     * The content of a resource, with its validators: a strong ETag computed from its content, and its last
+     * modification date when known.
+     */
+    protected static class CachedResource {
+        private static CachedResource load(URLConnection connection) throws IOException {
+            byte[] content;
+            try (InputStream inputStream = connection.getInputStream()) {
+                content = ByteStreams.toByteArray(inputStream);
+            }
+            long lastModified = connection.getLastModified();
+            return new CachedResource(content, new ResourceValidator(
+                    Optional.of("\"" + Hashing.sha256().hashBytes(content) + "\""),
+                    lastModified > 0 ? Optional.of(new DateTime(lastModified)) : Optional.<DateTime>absent()));
+        }
+
+        final byte[] content;
+        final ResourceValidator validator;
+
+        private CachedResource(byte[] content, ResourceValidator validator) {
+            this.content = content;
+            this.validator = validator;
+        }
+    }
+
     public static class CachedResourcePolicy {
         final Predicate<ResourceInfo> matcher;
         final String cacheValue;
@@ -124,16 +199,120 @@ public class ResourcesRoute implements RestxRoute, RestxHandler {
     public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
         String relativePath = this.requestRelativePath(req);
         relativePath = Optional.fromNullable(aliases.get(relativePath)).or(relativePath);
-        try {
-            URL resource = MoreResources.getResource(
-                    baseResourcePath + relativePath, RestxContext.Modes.DEV.equals(ctx.getMode())
-                                                    || RestxContext.Modes.TEST.equals(ctx.getMode())
-                                                    || RestxContext.Modes.INFINIREST.equals(ctx.getMode())
-            );
+        boolean searchInSources = RestxContext.Modes.DEV.equals(ctx.getMode())
+                                  || RestxContext.Modes.TEST.equals(ctx.getMode())
+                                  || RestxContext.Modes.INFINIREST.equals(ctx.getMode());
+        // outside of DEV mode resources don't change, they are kept in memory once loaded
+        boolean useCache = !searchInSources;
+        String resourceName = baseResourcePath + relativePath;
+
+        Optional<URL> baseResource = findResource(resourceName, searchInSources, false);
+        if (!baseResource.isPresent()) {
+            notFound(resp, relativePath);
+            return;
+        }
+
+        URL resource = baseResource.get();
+        String servedResourceName = resourceName;
+        boolean precompressedVariants = false;
+        Optional<String> acceptEncoding = req.getHeader("Accept-Encoding");
+        for (Map.Entry<String, String> precompressed : PRECOMPRESSED_EXTENSIONS.entrySet()) {
+            String precompressedResourceName = resourceName + precompressed.getValue();
+            Optional<URL> precompressedResource = findResource(precompressedResourceName, searchInSources, true);
+            if (!precompressedResource.isPresent()) {
+                continue;
+            }
+            // caches must not serve the representation chosen here to clients accepting other encodings
+            precompressedVariants = true;
+            if (servedResourceName.equals(resourceName) && acceptEncoding.isPresent()
+                    && acceptsEncoding(acceptEncoding.get(), precompressed.getKey())) {
+                // content type is still the one of the uncompressed resource
+                resp.setHeader("Content-Encoding", precompressed.getKey());
+                servedResourceName = precompressedResourceName;
+                resource = precompressedResource.get();
+            }
+        }
+        if (precompressedVariants) {
+            resp.setHeader("Vary", "Accept-Encoding");
+        }
+
+        if (!useCache) {
             serveCacheableResource(resp, resource, relativePath);
+            return;
+        }
+
+        CachedResource cachedResource = cachedResources.getIfPresent(servedResourceName);
+        if (cachedResource == null) {
+            URLConnection connection = resource.openConnection();
+            if (connection.getContentLengthLong() > MAX_CACHED_RESOURCE_SIZE) {
+                serveCacheableResource(resp, resource, relativePath);
+                return;
+            }
+            cachedResource = CachedResource.load(connection);
+            cachedResources.put(servedResourceName, cachedResource);
+        }
+        serveCachedResource(req, resp, cachedResource, relativePath);
+    }
+
+    protected void serveCachedResource(RestxRequest req, RestxResponse resp,
+                                       CachedResource cachedResource, String relativePath) throws IOException {
+        String contentType = HTTP.getContentTypeFromExtension(relativePath).or("application/octet-stream");
+        Optional<CachedResourcePolicy> cachedResourcePolicy = cachePolicyMatching(contentType, relativePath);
+
+        resp.setLogLevel(RestxLogLevel.QUIET);
+        if(cachedResourcePolicy.isPresent()) {
+            resp.setHeader("Cache-Control", cachedResourcePolicy.get().getCacheValue());
+        }
+        resp.setHeader("ETag", cachedResource.validator.getETag().get());
+        if (cachedResource.validator.getLastModified().isPresent()) {
+            resp.setHeader("Last-Modified", ExpiresHeaderFilter.createRFC1123DateFormat(Locale.US)
+                    .format(cachedResource.validator.getLastModified().get().toDate()));
+        }
+        if (ConditionalRequestFilter.isNotModified(req, cachedResource.validator)) {
+            resp.setStatus(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+        resp.setStatus(HttpStatus.OK);
+        resp.setContentType(contentType);
+        resp.getOutputStream().write(cachedResource.content);
+    }
+
+    private Optional<URL> findResource(String resourceName, boolean searchInSources, boolean rememberMissing) {
+        if (!searchInSources) {
+            Optional<URL> resource = resources.get(resourceName);
+            if (resource != null) {
+                return resource;
+            }
+        }
+        Optional<URL> resource;
+        try {
+            resource = Optional.of(MoreResources.getResource(resourceName, searchInSources));
         } catch (IllegalArgumentException e) {
-            notFound(resp, relativePath);
+            resource = Optional.absent();
+        }
+        if (!searchInSources && (resource.isPresent() || rememberMissing)) {
+            resources.put(resourceName, resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Checks if an Accept-Encoding header value accepts the given encoding.
+     */
+    protected static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        for (String s : acceptEncoding.split(",")) {
+            String[] parts = s.trim().split(";");
+            if (parts[0].trim().equals(encoding)) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
         }
+        return false;
     }
 
     protected String requestRelativePath(RestxRequest req) {
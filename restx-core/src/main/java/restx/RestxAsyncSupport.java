@@ -0,0 +1,69 @@
+package restx;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+
+/**
+ * Asynchronous processing of a request, provided by servers able to release the thread handling a request before
+ * its response is written (eg a servlet 3 container).
+ *
+ * When a route result is a future, the route suspends the request with a continuation and returns. Once the future
+ * is completed, the server calls the continuation on one of its threads, with the request and response held since
+ * the routing: the request is not routed again, so filters are applied only once.
+ *
+ * Filters needing to act once the response is written (rather than when the routing returns) can register a
+ * completion listener.
+ *
+ * See RestxRequest#getAsyncSupport()
+ */
+public interface RestxAsyncSupport {
+    /**
+     * Suspends the request until the given future is completed, then calls the continuation to write the response.
+     *
+     * The caller must not write to the response after calling this method.
+     *
+     * @param future the future to wait for
+     * @param continuation the continuation writing the response once the future is completed
+     */
+    void suspend(ListenableFuture<?> future, Continuation continuation);
+
+    /**
+     * @return true if suspend() has been called during the routing of the request
+     */
+    boolean isSuspended();
+
+    /**
+     * Sets how a suspended request is completed, called by the main router once the routing returns.
+     *
+     * The completion is called once, either when the future is completed or when the request times out, and is in
+     * charge of handling the continuation errors and closing the response.
+     *
+     * @param completion the completion
+     */
+    void onResume(Completion completion);
+
+    /**
+     * Adds a listener called once the response of a suspended request is completed, whatever its outcome.
+     *
+     * Listeners are called in the reverse order of their registration, filters registering them being completed
+     * in the reverse order they were applied.
+     *
+     * @param listener the listener
+     */
+    void addCompletionListener(Runnable listener);
+
+    /**
+     * Writes the response of a suspended request.
+     */
+    interface Continuation {
+        void resume() throws IOException;
+    }
+
+    /**
+     * Completes a suspended request, by calling its continuation.
+     */
+    interface Completion {
+        void complete(Continuation continuation);
+    }
+}
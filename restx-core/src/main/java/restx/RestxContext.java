@@ -4,6 +4,8 @@ import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.UnmodifiableIterator;
 
+import java.util.Arrays;
+
 /**
  * User: xavierhanin
  * Date: 2/8/13
@@ -19,23 +21,33 @@ public class RestxContext {
     }
 
     private final String mode;
-    private final RouteLifecycleListener lifecycleListener;
+    /**
+     * The listeners to notify, in the order in which they have been added.
+     *
+     * This array is never modified once the context is built: adding a listener creates a new context with a copy
+     * of the array, so that listeners are notified in a simple loop instead of a chain of delegating listeners.
+     */
+    private final RouteLifecycleListener[] lifecycleListeners;
     private final ImmutableList<RestxHandlerMatch> matches;
     private final UnmodifiableIterator<RestxHandlerMatch> matchesIterator;
+    private RouteLifecycleListener lifecycleListener;
 
 
     public RestxContext(String mode, RouteLifecycleListener lifecycleListener,
                         ImmutableList<RestxHandlerMatch> matches) {
-        this.mode = mode;
-        this.lifecycleListener = lifecycleListener;
-        this.matches = matches;
-        this.matchesIterator = matches.iterator();
+        this(mode, lifecycleListener, matches, matches.iterator());
     }
 
     public RestxContext(String mode, RouteLifecycleListener lifecycleListener, ImmutableList<RestxHandlerMatch> matches,
                         UnmodifiableIterator<RestxHandlerMatch> matchesIterator) {
+        this(mode, new RouteLifecycleListener[] {lifecycleListener}, matches, matchesIterator);
+    }
+
+    private RestxContext(String mode, RouteLifecycleListener[] lifecycleListeners,
+                         ImmutableList<RestxHandlerMatch> matches,
+                         UnmodifiableIterator<RestxHandlerMatch> matchesIterator) {
         this.mode = mode;
-        this.lifecycleListener = lifecycleListener;
+        this.lifecycleListeners = lifecycleListeners;
         this.matches = matches;
         this.matchesIterator = matchesIterator;
     }
@@ -45,6 +57,12 @@ public class RestxContext {
     }
 
     public RouteLifecycleListener getLifecycleListener() {
+        if (lifecycleListeners.length == 1) {
+            return lifecycleListeners[0];
+        }
+        if (lifecycleListener == null) {
+            lifecycleListener = new CompositeRouteLifecycleListener(lifecycleListeners);
+        }
         return lifecycleListener;
     }
 
@@ -60,37 +78,56 @@ public class RestxContext {
     }
 
     public RestxContext withListener(final RouteLifecycleListener listener) {
-        return new RestxContext(mode, new RouteLifecycleListener() {
-            @Override
-            public void onRouteMatch(RestxRoute source, RestxRequest req, RestxResponse resp) {
-                lifecycleListener.onRouteMatch(source, req, resp);
+        RouteLifecycleListener[] listeners;
+        if (lifecycleListeners.length == 1 && lifecycleListeners[0] == RouteLifecycleListener.DEAF) {
+            listeners = new RouteLifecycleListener[] {listener};
+        } else {
+            listeners = Arrays.copyOf(lifecycleListeners, lifecycleListeners.length + 1);
+            listeners[lifecycleListeners.length] = listener;
+        }
+        return new RestxContext(mode, listeners, matches, matchesIterator);
+    }
+
+    private static final class CompositeRouteLifecycleListener implements RouteLifecycleListener {
+        private final RouteLifecycleListener[] listeners;
+
+        private CompositeRouteLifecycleListener(RouteLifecycleListener[] listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void onRouteMatch(RestxRoute source, RestxRequest req, RestxResponse resp) {
+            for (RouteLifecycleListener listener : listeners) {
                 listener.onRouteMatch(source, req, resp);
             }
+        }
 
-            @Override
-            public void onBeforeWriteContent(RestxRequest req, RestxResponse resp) {
-                lifecycleListener.onBeforeWriteContent(req, resp);
+        @Override
+        public void onBeforeWriteContent(RestxRequest req, RestxResponse resp) {
+            for (RouteLifecycleListener listener : listeners) {
                 listener.onBeforeWriteContent(req, resp);
             }
+        }
 
-            @Override
-            public void onAfterWriteContent(RestxRequest req, RestxResponse resp) {
-                lifecycleListener.onAfterWriteContent(req, resp);
+        @Override
+        public void onAfterWriteContent(RestxRequest req, RestxResponse resp) {
+            for (RouteLifecycleListener listener : listeners) {
                 listener.onAfterWriteContent(req, resp);
             }
+        }
 
-            @Override
-            public void onEntityInput(RestxRoute route, RestxRequest req, RestxResponse resp, Optional<?> input) {
-                lifecycleListener.onEntityInput(route, req, resp, input);
+        @Override
+        public void onEntityInput(RestxRoute route, RestxRequest req, RestxResponse resp, Optional<?> input) {
+            for (RouteLifecycleListener listener : listeners) {
                 listener.onEntityInput(route, req, resp, input);
             }
+        }
 
-            @Override
-            public void onEntityOutput(RestxRoute route, RestxRequest req, RestxResponse resp, Optional<?> input, Optional<?> output) {
-                lifecycleListener.onEntityOutput(route, req, resp, input, output);
+        @Override
+        public void onEntityOutput(RestxRoute route, RestxRequest req, RestxResponse resp, Optional<?> input, Optional<?> output) {
+            for (RouteLifecycleListener listener : listeners) {
                 listener.onEntityOutput(route, req, resp, input, output);
             }
-        }, matches, matchesIterator);
+        }
     }
-
 }
@@ -0,0 +1,25 @@
+package restx;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Zero copy transfer of files, provided by servers able to send file content from the file system to the network
+ * without copying it through the response output stream (eg with FileChannel.transferTo or sendfile).
+ *
+ * See RestxResponse#getFileTransfer()
+ */
+public interface RestxFileTransfer {
+    /**
+     * Sends a region of a file as the response content.
+     *
+     * Status and headers must be set before calling this method, and nothing must be written to the response output
+     * stream, neither before nor after.
+     *
+     * @param file the file to send
+     * @param position the position of the first byte to send in the file
+     * @param count the number of bytes to send
+     * @throws IOException if the file can't be read
+     */
+    void transferFile(Path file, long position, long count) throws IOException;
+}
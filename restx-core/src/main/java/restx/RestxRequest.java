@@ -138,6 +138,15 @@ public interface RestxRequest {
      */
     <T> T unwrap(Class<T> clazz);
 
+    /**
+     * Returns the asynchronous processing support for this request, if the underlying server provides it.
+     *
+     * @return the async support, or absent if this request can only be processed synchronously.
+     */
+    default Optional<RestxAsyncSupport> getAsyncSupport() {
+        return Optional.absent();
+    }
+
     /**
      *
      * Returns the preferred <code>Locale</code> that the client will
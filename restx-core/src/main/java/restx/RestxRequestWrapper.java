@@ -116,6 +116,11 @@ public class RestxRequestWrapper implements RestxRequest {
         return original.unwrap(clazz);
     }
 
+    @Override
+    public Optional<RestxAsyncSupport> getAsyncSupport() {
+        return original.getAsyncSupport();
+    }
+
     @Override
     public Locale getLocale() {
         return original.getLocale();
@@ -94,4 +94,15 @@ public interface RestxResponse extends AutoCloseable {
 
     boolean isClosed();
 
+    /**
+     * Returns the zero copy file transfer support for this response, if the underlying server provides it.
+     *
+     * Response wrappers don't provide it, as they usually process the content written to the response.
+     *
+     * @return the file transfer support, or absent if files must be written to the output stream.
+     */
+    default Optional<RestxFileTransfer> getFileTransfer() {
+        return Optional.absent();
+    }
+
 }
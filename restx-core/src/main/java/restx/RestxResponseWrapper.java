@@ -115,4 +115,10 @@ public class RestxResponseWrapper implements RestxResponse {
     public <T> T unwrap(Class<T> clazz) {
         return restxResponse.unwrap(clazz);
     }
+
+    @Override
+    public Optional<RestxFileTransfer> getFileTransfer() {
+        // content written through a wrapper may be transformed, it must go through getOutputStream()
+        return Optional.absent();
+    }
 }
@@ -4,18 +4,16 @@ import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableMultimap.Builder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
+import com.google.common.primitives.Ints;
 import restx.factory.Factory;
 import restx.factory.NamedComponent;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
 
 import static com.google.common.collect.Iterables.transform;
@@ -29,6 +27,18 @@ public class RestxRouting {
     private final ImmutableList<NamedComponent<RestxFilter>> filters;
     private final ImmutableMultimap<RestxRoute, NamedComponent<RestxHandlerMatch>> routeFilters;
     private final ImmutableList<RestxRoute> routes;
+    /**
+     * Index of StdRoutes with segment based path patterns
+     */
+    private final RouteTrie routeTrie;
+    /**
+     * Indexes in routes of the routes which can't be indexed in the trie, and have to be matched in order.
+     */
+    private final int[] scannedRoutes;
+    /**
+     * Filter chains of each route, at the same index as the route in routes.
+     */
+    private final FilterChain[] filterChains;
 
     public RestxRouting(ImmutableList<NamedComponent<RestxFilter>> filters,
                         ImmutableList<NamedComponent<RestxRouteFilter>> routeFilters,
@@ -48,6 +58,20 @@ public class RestxRouting {
         }
         this.routeFilters = builder.build();
         this.routes = routes;
+        this.routeTrie = new RouteTrie(routes);
+
+        List<Integer> scannedRoutes = new ArrayList<>();
+        for (int i = 0; i < routes.size(); i++) {
+            if (!RouteTrie.isIndexable(routes.get(i))) {
+                scannedRoutes.add(i);
+            }
+        }
+        this.scannedRoutes = Ints.toArray(scannedRoutes);
+
+        this.filterChains = new FilterChain[routes.size()];
+        for (int i = 0; i < routes.size(); i++) {
+            filterChains[i] = new FilterChain(filters, this.routeFilters.get(routes.get(i)));
+        }
     }
 
     public ImmutableList<RestxFilter> getFilters() {
@@ -64,49 +88,103 @@ public class RestxRouting {
     }
 
     public Optional<Match> match(RestxRequest restxRequest) {
-        for (RestxRoute route : routes) {
+        // the first matching route is either the first indexed route found in the trie,
+        // or a route which can't be indexed and which comes before it
+        int indexedRoute = routeTrie.find(restxRequest.getHttpMethod(), restxRequest.getRestxPath());
+        for (int scannedRoute : scannedRoutes) {
+            if (scannedRoute > indexedRoute) {
+                break;
+            }
+            RestxRoute route = routes.get(scannedRoute);
+            Optional<? extends RestxHandlerMatch> match = route.match(restxRequest);
+            if (match.isPresent()) {
+                return Optional.of(filterChains[scannedRoute].newMatch(restxRequest, route, scannedRoute, match));
+            }
+        }
+        if (indexedRoute != RouteTrie.NO_ROUTE) {
+            RestxRoute route = routes.get(indexedRoute);
             Optional<? extends RestxHandlerMatch> match = route.match(restxRequest);
             if (match.isPresent()) {
-                // here we need to:
-                // - check which filters apply
-                // - order all filters (route filters and regular filters) by priority
-                // so we put all matches as NamedComponents (to preserve the filter priority) in a list,
-                // and finally sort the list by priority before returning it as a Match
-                ImmutableCollection<NamedComponent<RestxHandlerMatch>> routeFilters = this.routeFilters.get(route);
-
-                List<NamedComponent<RestxHandlerMatch>> matches = Lists.newArrayListWithCapacity(
-                        filters.size() + routeFilters.size() + 1);
-                matches.addAll(routeFilters);
-
-                for (NamedComponent<RestxFilter> filter : filters) {
-                    Optional<? extends RestxHandlerMatch> filterMatch = filter.getComponent().match(restxRequest);
+                return Optional.of(filterChains[indexedRoute].newMatch(restxRequest, route, indexedRoute, match));
+            }
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * The filters to apply on a route, sorted by priority.
+     *
+     * Route filters matches and regular filters don't depend on the request, so they are sorted once for all when
+     * building the routing: at request time we only have to check which regular filters match the request.
+     */
+    private static final class FilterChain {
+        private final FilterChainSlot[] slots;
+
+        private FilterChain(ImmutableList<NamedComponent<RestxFilter>> filters,
+                            ImmutableCollection<NamedComponent<RestxHandlerMatch>> routeFilters) {
+            // we put all filters as NamedComponents (to preserve the filter priority) in a list,
+            // and sort the list by priority, route filters coming first for filters with same priority and name
+            List<NamedComponent<FilterChainSlot>> slots = Lists.newArrayListWithCapacity(
+                    filters.size() + routeFilters.size());
+            for (NamedComponent<RestxHandlerMatch> routeFilter : routeFilters) {
+                slots.add(NamedComponent.of(
+                        FilterChainSlot.class, routeFilter.getName().getName(), routeFilter.getPriority(),
+                        new FilterChainSlot(routeFilter.getComponent(), null)));
+            }
+            for (NamedComponent<RestxFilter> filter : filters) {
+                slots.add(NamedComponent.of(
+                        FilterChainSlot.class, filter.getName().getName(), filter.getPriority(),
+                        new FilterChainSlot(null, filter.getComponent())));
+            }
+
+            this.slots = Iterables.toArray(
+                    transform(Ordering.from(Factory.NAMED_COMPONENT_COMPARATOR).sortedCopy(slots),
+                            NamedComponent.<FilterChainSlot>toComponent()),
+                    FilterChainSlot.class);
+        }
+
+        private Match newMatch(RestxRequest restxRequest, RestxRoute route, int routeIndex,
+                               Optional<? extends RestxHandlerMatch> match) {
+            ImmutableList.Builder<RestxHandlerMatch> matches = ImmutableList.builderWithExpectedSize(slots.length + 1);
+            for (FilterChainSlot slot : slots) {
+                if (slot.routeFilterMatch != null) {
+                    matches.add(slot.routeFilterMatch);
+                } else {
+                    Optional<? extends RestxHandlerMatch> filterMatch = slot.filter.match(restxRequest);
                     if (filterMatch.isPresent()) {
-                        matches.add(NamedComponent.of(
-                                RestxHandlerMatch.class, filter.getName().getName(),
-                                filter.getPriority(), filterMatch.get()));
+                        matches.add(filterMatch.get());
                     }
                 }
-
-                return Optional.of(new Match(
-                        ImmutableList.<RestxHandlerMatch>builder()
-                                .addAll(
-                                        transform(Ordering.from(Factory.NAMED_COMPONENT_COMPARATOR).sortedCopy(matches),
-                                                NamedComponent.<RestxHandlerMatch>toComponent()))
-                                .add(match.get())
-                                .build(),
-                        match));
             }
+            return new Match(matches.add(match.get()).build(), match, route, routeIndex);
+        }
+    }
+
+    /**
+     * A slot in a filter chain, either an already matched route filter, or a filter to match against the request.
+     */
+    private static final class FilterChainSlot {
+        private final RestxHandlerMatch routeFilterMatch;
+        private final RestxFilter filter;
+
+        private FilterChainSlot(RestxHandlerMatch routeFilterMatch, RestxFilter filter) {
+            this.routeFilterMatch = routeFilterMatch;
+            this.filter = filter;
         }
-        return Optional.absent();
     }
 
     public static class Match {
         private final ImmutableList<RestxHandlerMatch> matches;
         private final Optional<? extends RestxHandlerMatch> match;
+        private final RestxRoute route;
+        private final int routeIndex;
 
-        private Match(ImmutableList<RestxHandlerMatch> matches, Optional<? extends RestxHandlerMatch> match) {
+        private Match(ImmutableList<RestxHandlerMatch> matches, Optional<? extends RestxHandlerMatch> match,
+                      RestxRoute route, int routeIndex) {
             this.matches = matches;
             this.match = match;
+            this.route = route;
+            this.routeIndex = routeIndex;
         }
 
         public ImmutableList<RestxHandlerMatch> getMatches() {
@@ -117,6 +195,17 @@ public class RestxRouting {
             return match;
         }
 
+        public RestxRoute getRoute() {
+            return route;
+        }
+
+        /**
+         * @return the index of the matched route in the routing routes list.
+         */
+        int getRouteIndex() {
+            return routeIndex;
+        }
+
         @Override
         public String toString() {
             return "Match{" +
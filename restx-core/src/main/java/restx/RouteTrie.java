@@ -0,0 +1,145 @@
+package restx;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment trie indexing routes by http method and std path pattern.
+ *
+ * Only routes with a segment based path pattern (see StdRestxRequestMatcher#isSegmentBased()) are indexed, other
+ * routes have to be matched by scanning them in order.
+ *
+ * Lookups return the index of the first route (in the routes list order) whose pattern matches the given path,
+ * so that first match semantics are preserved whatever the order of literal and param segments is.
+ */
+final class RouteTrie {
+    static final int NO_ROUTE = Integer.MAX_VALUE;
+
+    /**
+     * Tells whether the given route can be indexed in a RouteTrie.
+     *
+     * Only StdRoute not overriding the match method and using a segment based StdRestxRequestMatcher, not a subclass
+     * which may override its match method, can be indexed, because the trie has to give exactly the same result as the
+     * route match method.
+     */
+    static boolean isIndexable(RestxRoute route) {
+        if (!(route instanceof StdRoute)) {
+            return false;
+        }
+        RestxRequestMatcher matcher = ((StdRoute) route).getMatcher();
+        if (matcher == null || matcher.getClass() != StdRestxRequestMatcher.class
+                || !((StdRestxRequestMatcher) matcher).isSegmentBased()) {
+            return false;
+        }
+        try {
+            return route.getClass().getMethod("match", RestxRequest.class).getDeclaringClass() == StdRoute.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private final ImmutableMap<String, Node> roots;
+
+    /**
+     * Builds a trie indexing the indexable routes of the given list.
+     *
+     * @param routes the routes, in matching order. Non indexable routes are ignored.
+     */
+    RouteTrie(List<RestxRoute> routes) {
+        Map<String, Node> roots = new HashMap<>();
+        for (int i = 0; i < routes.size(); i++) {
+            RestxRoute route = routes.get(i);
+            if (!isIndexable(route)) {
+                continue;
+            }
+            StdRestxRequestMatcher matcher = (StdRestxRequestMatcher) ((StdRoute) route).getMatcher();
+            Node root = roots.get(matcher.getMethod());
+            if (root == null) {
+                roots.put(matcher.getMethod(), root = new Node());
+            }
+            root.add(matcher.getStdPathPattern().split("/", -1), 0, i);
+        }
+        this.roots = ImmutableMap.copyOf(roots);
+    }
+
+    /**
+     * Finds the first indexed route matching the given method and path.
+     *
+     * @param method the http method
+     * @param path the restx path
+     * @return the index of the first matching route, or NO_ROUTE if none matches
+     */
+    int find(String method, String path) {
+        Node root = roots.get(method);
+        if (root == null) {
+            return NO_ROUTE;
+        }
+        return root.find(path, 0);
+    }
+
+    private static final class Node {
+        private String[] literals = new String[0];
+        private Node[] literalChildren = new Node[0];
+        private Node paramChild;
+        private int routeIndex = NO_ROUTE;
+
+        void add(String[] segments, int depth, int index) {
+            if (depth == segments.length) {
+                // in case of duplicate patterns the first route always wins
+                routeIndex = Math.min(routeIndex, index);
+                return;
+            }
+            String segment = segments[depth];
+            Node child;
+            if (segment.startsWith("{")) {
+                if (paramChild == null) {
+                    paramChild = new Node();
+                }
+                child = paramChild;
+            } else {
+                child = literalChild(segment, 0, segment.length());
+                if (child == null) {
+                    literals = Arrays.copyOf(literals, literals.length + 1);
+                    literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+                    literals[literals.length - 1] = segment;
+                    literalChildren[literalChildren.length - 1] = child = new Node();
+                }
+            }
+            child.add(segments, depth + 1, index);
+        }
+
+        int find(String path, int start) {
+            int end = path.indexOf('/', start);
+            boolean last = end == -1;
+            if (last) {
+                end = path.length();
+            }
+
+            // literals first, but we still have to explore the param branch to get the lowest route index
+            int found = NO_ROUTE;
+            Node literal = literalChild(path, start, end);
+            if (literal != null) {
+                found = last ? literal.routeIndex : literal.find(path, end + 1);
+            }
+            if (paramChild != null && end > start) {
+                found = Math.min(found, last ? paramChild.routeIndex : paramChild.find(path, end + 1));
+            }
+            return found;
+        }
+
+        private Node literalChild(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return literalChildren[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package restx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A request match produced by a segment based StdRestxRequestMatcher.
+ *
+ * Path params are kept as offsets in the matched path, and are extracted only when they are requested.
+ */
+final class SegmentsRestxRequestMatch implements RestxRequestMatch {
+    private final String pattern;
+    private final String path;
+    private final ImmutableList<String> pathParamNames;
+    /**
+     * start and end offsets in path of each path param value, in the same order as pathParamNames
+     */
+    private final int[] pathParamsOffsets;
+
+    private ImmutableMap<String, String> pathParams;
+
+    SegmentsRestxRequestMatch(String pattern, String path,
+                              ImmutableList<String> pathParamNames, int[] pathParamsOffsets) {
+        this.pattern = checkNotNull(pattern);
+        this.path = checkNotNull(path);
+        this.pathParamNames = checkNotNull(pathParamNames);
+        this.pathParamsOffsets = pathParamsOffsets;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String getPathParam(String paramName) {
+        for (int i = 0; i < pathParamNames.size(); i++) {
+            if (pathParamNames.get(i).equals(paramName)) {
+                return path.substring(pathParamsOffsets[i * 2], pathParamsOffsets[i * 2 + 1]);
+            }
+        }
+        throw new IllegalStateException(
+                String.format("path parameter %s was not found", paramName));
+    }
+
+    @Override
+    public ImmutableMap<String, String> getPathParams() {
+        if (pathParams == null) {
+            ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
+            for (int i = 0; i < pathParamNames.size(); i++) {
+                params.put(pathParamNames.get(i),
+                        path.substring(pathParamsOffsets[i * 2], pathParamsOffsets[i * 2 + 1]));
+            }
+            pathParams = params.build();
+        }
+        return pathParams;
+    }
+
+    @Override
+    public ImmutableMap<String, ? extends Object> getOtherParams() {
+        return ImmutableMap.of();
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentsRestxRequestMatch{" +
+                "pattern='" + pattern + '\'' +
+                ", path='" + path + '\'' +
+                ", pathParams=" + getPathParams() +
+                ", otherParams=" + getOtherParams() +
+                '}';
+    }
+}
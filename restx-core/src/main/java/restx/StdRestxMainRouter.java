@@ -10,7 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import restx.common.metrics.api.MetricRegistry;
-import restx.common.metrics.api.Monitor;
+import restx.common.metrics.api.Timer;
 import restx.common.metrics.dummy.DummyMetricRegistry;
 import restx.exceptions.RestxError;
 import restx.exceptions.WrappedCheckedException;
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -98,6 +99,13 @@ public class StdRestxMainRouter implements RestxMainRouter {
     private final RestxRouting routing;
     private final String mode;
     private final MetricRegistry metrics;
+    /**
+     * Timers of each route, at the same index as the route in the routing routes, lazily resolved.
+     */
+    private final Timer[] routeTimers;
+    private volatile Timer notFoundTimer;
+    private final boolean hasApiDocs;
+    private volatile String routesListing;
 
     public StdRestxMainRouter(RestxRouting routing) {
         this(routing, RestxContext.Modes.PROD);
@@ -111,6 +119,8 @@ public class StdRestxMainRouter implements RestxMainRouter {
         this.metrics = checkNotNull(metrics);
         this.routing = checkNotNull(routing);
         this.mode = checkNotNull(mode);
+        this.routeTimers = new Timer[routing.getRoutes().size()];
+        this.hasApiDocs = hasApiDocs(routing);
     }
 
     @Override
@@ -118,40 +128,53 @@ public class StdRestxMainRouter implements RestxMainRouter {
         logger.debug("<< {}", restxRequest);
         Stopwatch stopwatch = Stopwatch.createStarted();
 
-        Monitor monitor = metrics.timer("<HTTP> " + restxRequest.getHttpMethod() + " " + restxRequest.getRestxPath()).time();
+        Timer timer = null;
         try {
             Optional<RestxRouting.Match> m = routing.match(restxRequest);
+            // the timer is only known once matched: the elapsed time, including matching, is recorded on completion
+            timer = m.isPresent() ? getRouteTimer(m.get().getRouteIndex()) : getNotFoundTimer();
 
             if (!m.isPresent()) {
                 // no route matched
-                String path = restxRequest.getRestxPath();
-                StringBuilder sb = new StringBuilder()
-                        .append("no restx route found for ")
-                        .append(restxRequest.getHttpMethod()).append(" ").append(path).append("\n");
-                if (hasApiDocs()) {
-                    sb.append("go to ").append(restxRequest.getBaseUri()).append("/@/ui/api-docs/")
-                            .append(" for API documentation\n\n");
-                }
-                sb.append("routes:\n")
-                        .append("-----------------------------------\n");
-                for (RestxRoute route : routing.getRoutes()) {
-                    sb.append(route).append("\n");
-                }
-                sb.append("-----------------------------------");
-                restxResponse.setStatus(HttpStatus.NOT_FOUND);
-                restxResponse.setContentType("text/plain");
-                PrintWriter out = restxResponse.getWriter();
-                out.print(sb.toString());
+                notFound(restxRequest, restxResponse);
             } else {
                 MDC.put("restx.path", restxRequest.getRestxPath());
                 MDC.put("restx.method", restxRequest.getHttpMethod());
 
                 logger.debug("<< {}\nHANDLERS: {}", restxRequest, m.get().getMatches());
-                RestxContext context = new RestxContext(getMode(), new AbstractRouteLifecycleListener() {},
+                RestxContext context = new RestxContext(getMode(), RouteLifecycleListener.DEAF,
                         ImmutableList.copyOf(m.get().getMatches()));
                 RestxHandlerMatch match = context.nextHandlerMatch();
                 match.handle(restxRequest, restxResponse, context);
             }
+        } catch (Throwable ex) {
+            writeError(ex, restxRequest, restxResponse);
+        } finally {
+            try { restxRequest.closeContentStream(); } catch (Exception ex) { }
+            if (isSuspended(restxRequest)) {
+                // the response will be written once the route result is available, see RestxAsyncSupport
+                logger.debug("<< {} suspended", restxRequest);
+                restxRequest.getAsyncSupport().get().onResume(
+                        new AsyncCompletion(restxRequest, restxResponse, timer, stopwatch));
+            } else {
+                complete(restxRequest, restxResponse, timer, stopwatch);
+            }
+            MDC.clear();
+        }
+    }
+
+    private void complete(RestxRequest restxRequest, RestxResponse restxResponse, Timer timer, Stopwatch stopwatch) {
+        try { restxResponse.close(); } catch (Exception ex) { }
+        stopwatch.stop();
+        if (timer != null) {
+            timer.update(stopwatch.elapsed(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+        restxResponse.getLogLevel().log(logger, restxRequest, restxResponse, stopwatch);
+    }
+
+    private void writeError(Throwable error, RestxRequest restxRequest, RestxResponse restxResponse) throws IOException {
+        try {
+            throw error;
         } catch (JsonProcessingException ex) {
             logger.warn("request raised " + ex.getClass().getSimpleName(), ex);
             restxResponse.setStatus(HttpStatus.BAD_REQUEST);
@@ -235,21 +258,114 @@ public class StdRestxMainRouter implements RestxMainRouter {
             PrintWriter out = restxResponse.getWriter();
             out.println("UNEXPECTED SERVER ERROR:");
             out.print(ex.getMessage());
-        } finally {
-            try { restxRequest.closeContentStream(); } catch (Exception ex) { }
-            try { restxResponse.close(); } catch (Exception ex) { }
-            monitor.stop();
-            stopwatch.stop();
-            restxResponse.getLogLevel().log(logger, restxRequest, restxResponse, stopwatch);
-            MDC.clear();
         }
     }
 
+    /**
+     * Completes a suspended request: writes its response or the error raised when computing it, then closes it.
+     */
+    private class AsyncCompletion implements RestxAsyncSupport.Completion {
+        private final RestxRequest restxRequest;
+        private final RestxResponse restxResponse;
+        private final Timer timer;
+        private final Stopwatch stopwatch;
+
+        private AsyncCompletion(RestxRequest restxRequest, RestxResponse restxResponse,
+                                Timer timer, Stopwatch stopwatch) {
+            this.restxRequest = restxRequest;
+            this.restxResponse = restxResponse;
+            this.timer = timer;
+            this.stopwatch = stopwatch;
+        }
+
+        @Override
+        public void complete(RestxAsyncSupport.Continuation continuation) {
+            MDC.put("restx.path", restxRequest.getRestxPath());
+            MDC.put("restx.method", restxRequest.getHttpMethod());
+            try {
+                continuation.resume();
+            } catch (Throwable ex) {
+                try {
+                    writeError(ex, restxRequest, restxResponse);
+                } catch (IOException e) {
+                    logger.warn("unable to write error response of " + restxRequest + ": " + e.getMessage(), e);
+                }
+            } finally {
+                StdRestxMainRouter.this.complete(restxRequest, restxResponse, timer, stopwatch);
+                MDC.clear();
+            }
+        }
+    }
+
+    private static boolean isSuspended(RestxRequest restxRequest) {
+        Optional<RestxAsyncSupport> asyncSupport = restxRequest.getAsyncSupport();
+        return asyncSupport.isPresent() && asyncSupport.get().isSuspended();
+    }
+
     String getMode() {
         return mode;
     }
 
-    private boolean hasApiDocs() {
+    private void notFound(RestxRequest restxRequest, RestxResponse restxResponse) throws IOException {
+        StringBuilder sb = new StringBuilder()
+                .append("no restx route found for ")
+                .append(restxRequest.getHttpMethod()).append(" ").append(restxRequest.getRestxPath());
+        if (!RestxContext.Modes.PROD.equals(mode)) {
+            sb.append("\n");
+            if (hasApiDocs) {
+                sb.append("go to ").append(restxRequest.getBaseUri()).append("/@/ui/api-docs/")
+                        .append(" for API documentation\n\n");
+            }
+            sb.append(getRoutesListing());
+        }
+        restxResponse.setStatus(HttpStatus.NOT_FOUND);
+        restxResponse.setContentType("text/plain");
+        PrintWriter out = restxResponse.getWriter();
+        out.print(sb.toString());
+    }
+
+    private String getRoutesListing() {
+        String listing = routesListing;
+        if (listing == null) {
+            StringBuilder sb = new StringBuilder()
+                    .append("routes:\n")
+                    .append("-----------------------------------\n");
+            for (RestxRoute route : routing.getRoutes()) {
+                sb.append(route).append("\n");
+            }
+            sb.append("-----------------------------------");
+            routesListing = listing = sb.toString();
+        }
+        return listing;
+    }
+
+    // timers are keyed by route rather than by path, to keep the number of timers bounded.
+    // they are resolved on first use only, concurrent resolutions get the same timer from the registry
+    private Timer getRouteTimer(int routeIndex) {
+        Timer timer = routeTimers[routeIndex];
+        if (timer == null) {
+            RestxRoute route = routing.getRoutes().get(routeIndex);
+            String key;
+            if (route instanceof StdRoute && ((StdRoute) route).getMatcher() instanceof StdRestxRequestMatcher) {
+                StdRestxRequestMatcher matcher = (StdRestxRequestMatcher) ((StdRoute) route).getMatcher();
+                key = matcher.getMethod() + " " + matcher.getStdPathPattern();
+            } else {
+                key = route.toString();
+            }
+            routeTimers[routeIndex] = timer = metrics.timer("<HTTP> " + key);
+        }
+        return timer;
+    }
+
+    private Timer getNotFoundTimer() {
+        Timer timer = notFoundTimer;
+        if (timer == null) {
+            notFoundTimer = timer = metrics.timer("<HTTP> NOT_FOUND");
+        }
+        return timer;
+    }
+
+    private static boolean hasApiDocs(RestxRouting routing) {
         for (RestxRoute route : routing.getRoutes()) {
             // maybe we should find a more pluggable way to detect this feature..
             // we don't use the class itself, we don't want to have a strong dependency on swagger route
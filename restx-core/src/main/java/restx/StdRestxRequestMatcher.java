@@ -21,6 +21,10 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
 
     private final Pattern pattern;
     private final ImmutableList<String> groupNames;
+    /**
+     * The path pattern segments, with null for path params segments, or null if the path pattern is not segment based
+     */
+    private final String[] segments;
 
     public StdRestxRequestMatcher(Endpoint endpoint) {
         this.endpoint = endpoint;
@@ -31,6 +35,7 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
         pattern = Pattern.compile(s.patternBuilder.toString());
         stdPathPattern = s.stdPathPatternBuilder.toString();
         groupNames = s.groupNamesBuilder.build();
+        segments = s.compileSegments(stdPathPattern);
     }
 
     public StdRestxRequestMatcher(String method, String pathPattern) {
@@ -42,6 +47,9 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
         if (!this.endpoint.getMethod().equals(method)) {
             return Optional.absent();
         }
+        if (segments != null) {
+            return matchSegments(path);
+        }
         Matcher m = pattern.matcher(path);
         if (!m.matches()) {
             return Optional.absent();
@@ -55,6 +63,38 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
         return Optional.of(new StdRestxRequestMatch(this.endpoint.getPathPattern(), path, params.build()));
     }
 
+    private Optional<? extends RestxRequestMatch> matchSegments(String path) {
+        int[] pathParamsOffsets = groupNames.isEmpty() ? null : new int[groupNames.size() * 2];
+        int pathParamIndex = 0;
+        int start = 0;
+        for (int i = 0; i < segments.length; i++) {
+            int end = path.indexOf('/', start);
+            if (i == segments.length - 1) {
+                if (end != -1) {
+                    return Optional.absent();
+                }
+                end = path.length();
+            } else if (end == -1) {
+                return Optional.absent();
+            }
+
+            String segment = segments[i];
+            if (segment == null) {
+                if (end == start) {
+                    return Optional.absent();
+                }
+                pathParamsOffsets[pathParamIndex++] = start;
+                pathParamsOffsets[pathParamIndex++] = end;
+            } else if (segment.length() != end - start || !path.regionMatches(start, segment, 0, end - start)) {
+                return Optional.absent();
+            }
+            start = end + 1;
+        }
+
+        return Optional.of(new SegmentsRestxRequestMatch(
+                this.endpoint.getPathPattern(), path, groupNames, pathParamsOffsets));
+    }
+
     @Override
     public String toString() {
         return endpoint.toString();
@@ -76,6 +116,18 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
         return groupNames;
     }
 
+    /**
+     * Tells whether this matcher path pattern is only made of literal segments and of path params using the
+     * default regex and spanning a whole segment, like in <code>/users/{id}/children</code>.
+     *
+     * Such patterns are matched segment by segment, without relying on their regex.
+     *
+     * @return true if the path pattern can be matched segment by segment
+     */
+    public boolean isSegmentBased() {
+        return segments != null;
+    }
+
     // here comes the path pattern parsing logic
     // the code is pretty ugly with lot of cross dependencies, I tried to keep it performant, correct, and maintainable
     // not sure those goals are all achieved though
@@ -88,6 +140,7 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
         ImmutableList.Builder<String> groupNamesBuilder = ImmutableList.builder();
         StringBuilder patternBuilder = new StringBuilder();
         StringBuilder stdPathPatternBuilder = new StringBuilder();
+        boolean regexOnly;
 
         private PathPatternParser(String pathPattern) {
             this.length = pathPattern.length();
@@ -104,6 +157,29 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
             }
             processor.end(this);
         }
+
+        String[] compileSegments(String stdPathPattern) {
+            if (regexOnly) {
+                return null;
+            }
+            String[] segments = stdPathPattern.split("/", -1);
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                int paramStart = segment.indexOf('{');
+                if (paramStart != -1) {
+                    if (paramStart != 0 || segment.indexOf('}') != segment.length() - 1) {
+                        // path param mixed with literal chars in the same segment
+                        return null;
+                    }
+                    segments[i] = null;
+                }
+            }
+            return segments;
+        }
+    }
+
+    private static boolean isRegexMetaChar(int curChar) {
+        return "\\.[]{}()*+?^$|".indexOf(curChar) != -1;
     }
 
     private static interface PathParserCharProcessor {
@@ -135,6 +211,7 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
                         pathPatternParser.processor = regularCharPathParserCharProcessor;
                         pathPatternParser.patternBuilder.append("{}");
                         pathPatternParser.stdPathPatternBuilder.append("{}");
+                        pathPatternParser.regexOnly = true;
                         return;
                     }
 
@@ -151,6 +228,7 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
                     } else {
                         // close paren for matching group
                         pathParamRegex.append(")");
+                        pathPatternParser.regexOnly = true;
                     }
 
                     pathPatternParser.processor = regularCharPathParserCharProcessor;
@@ -220,6 +298,10 @@ public class StdRestxRequestMatcher implements RestxRequestMatcher {
             } else if (curChar == ':') {
                 pathPatternParser.processor = new SimpleColumnBasedPathParamParserCharProcessor();
             } else {
+                if (isRegexMetaChar(curChar)) {
+                    // literal chars are not escaped in the regex, so they may not match literally
+                    pathPatternParser.regexOnly = true;
+                }
                 pathPatternParser.patternBuilder.appendCodePoint(curChar);
                 pathPatternParser.stdPathPatternBuilder.appendCodePoint(curChar);
             }
@@ -0,0 +1,25 @@
+package restx.annotations;
+
+/**
+ * Caches the responses of a GET resource method on the server side, see restx.http.ResponseCacheFilter.
+ *
+ * Responses are cached per path params, plus the query params listed in varyBy, plus the principal if perPrincipal
+ * is set (which is required as soon as the response depends on the authenticated user).
+ */
+public @interface Cached {
+    /**
+     * @return the duration during which a response is served from the cache, with the same format as ExpiresAfter
+     * (eg "5m" or "1h 30m")
+     */
+    String ttl();
+
+    /**
+     * @return the names of the query params the response depends on
+     */
+    String[] varyBy() default {};
+
+    /**
+     * @return true if the response depends on the authenticated user
+     */
+    boolean perPrincipal() default false;
+}
@@ -0,0 +1,20 @@
+package restx.annotations;
+
+/**
+ * Limits the rate of requests each client can make on a resource method.
+ *
+ * Clients are identified by their principal when authenticated, by their address otherwise. Requests above the limit
+ * are rejected with a 429 status, see restx.http.RateLimitFilter.
+ */
+public @interface RateLimited {
+    /**
+     * @return the number of requests per second allowed per client, on the long run
+     */
+    double perSecond();
+
+    /**
+     * @return the number of requests a client can make in a row after being idle, perSecond (rounded up) when
+     * not set
+     */
+    int burst() default 0;
+}
@@ -0,0 +1,12 @@
+package restx.annotations;
+
+import restx.http.ResourceValidatorProvider;
+
+/**
+ * Checks conditional GET requests on a resource method before it is called, using the given validator provider.
+ *
+ * The provider must be a component. See restx.http.ConditionalRequestFilter.
+ */
+public @interface ValidatedBy {
+    Class<? extends ResourceValidatorProvider> value();
+}
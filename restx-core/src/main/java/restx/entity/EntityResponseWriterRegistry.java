@@ -24,8 +24,15 @@ public class EntityResponseWriterRegistry {
         this.entityResponseWriterFactories = entityResponseWriterFactories;
     }
 
+    /**
+     * Builds a writer for the given entity type.
+     *
+     * For future types (CompletableFuture, CompletionStage or ListenableFuture), the writer is built for the type of
+     * the entity they hold: it's up to the route to wait for the future completion before writing it.
+     */
     @SuppressWarnings("unchecked")
-    public <T> EntityResponseWriter<T> build(final Type type, Optional<String> contentType) {
+    public <T> EntityResponseWriter<T> build(Type type, Optional<String> contentType) {
+        type = FutureEntities.entityType(type);
         String ct = entityContentTypeResolver.resolveContentType(type, contentType);
 
         for (EntityResponseWriterFactory writerFactory : entityResponseWriterFactories) {
@@ -0,0 +1,86 @@
+package restx.entity;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import restx.common.Types;
+import restx.exceptions.WrappedCheckedException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Support for entities computed asynchronously: routes may return a CompletableFuture, CompletionStage or
+ * ListenableFuture of their response entity.
+ */
+final class FutureEntities {
+    private FutureEntities() {}
+
+    /**
+     * Returns the type of the entity the given future type holds.
+     *
+     * @param type an entity type
+     * @return the future type parameter if type is a future type, type itself otherwise
+     */
+    static Type entityType(Type type) {
+        Class<?> rawType = Types.getRawType(type);
+        if ((rawType == CompletableFuture.class || rawType == CompletionStage.class
+                || rawType == ListenableFuture.class)
+                && type instanceof ParameterizedType) {
+            return ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+        return type;
+    }
+
+    static boolean isFuture(Object value) {
+        return value instanceof ListenableFuture || value instanceof CompletionStage;
+    }
+
+    static ListenableFuture<?> toListenableFuture(Object value) {
+        if (value instanceof ListenableFuture) {
+            return (ListenableFuture<?>) value;
+        }
+        final SettableFuture<Object> future = SettableFuture.create();
+        ((CompletionStage<?>) value).whenComplete(new BiConsumer<Object, Throwable>() {
+            @Override
+            public void accept(Object result, Throwable throwable) {
+                if (throwable != null) {
+                    future.setException(throwable);
+                } else {
+                    future.set(result);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Gets the result of the given future, waiting for it if necessary.
+     *
+     * If the future failed, its failure cause is rethrown, so that it is handled like if it was thrown by the route
+     * itself.
+     */
+    static Object getResult(Future<?> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WrappedCheckedException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            Throwables.throwIfInstanceOf(cause, IOException.class);
+            Throwables.throwIfUnchecked(cause);
+            throw new WrappedCheckedException((Exception) cause);
+        }
+    }
+}
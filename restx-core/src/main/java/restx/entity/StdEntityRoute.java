@@ -2,6 +2,7 @@ package restx.entity;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ListenableFuture;
 import restx.*;
 import restx.endpoint.*;
 import restx.endpoint.mappers.EndpointParameterMapper;
@@ -9,8 +10,10 @@ import restx.factory.ParamDef;
 import restx.http.HttpStatus;
 import restx.security.Permission;
 import restx.security.PermissionFactory;
+import restx.security.RestxSession;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.util.*;
 
@@ -239,18 +242,68 @@ public abstract class StdEntityRoute<I,O> extends StdRoute {
     }
 
     @Override
-    public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
+    public void handle(final RestxRequestMatch match, final RestxRequest req, final RestxResponse resp,
+                       final RestxContext ctx) throws IOException {
         RouteLifecycleListener lifecycleListener = ctx.getLifecycleListener();
         resp.setLogLevel(logLevel);
 
         lifecycleListener.onRouteMatch(this, req, resp);
         I input = entityRequestBodyReader.readBody(req, ctx);
-        Optional<I> optionalInput = Optional.fromNullable(input);
+        final Optional<I> optionalInput = Optional.fromNullable(input);
         lifecycleListener.onEntityInput(this, req, resp, optionalInput);
         Optional<O> result = doRoute(req, resp, match, input);
-        lifecycleListener.onEntityOutput(this, req, resp, optionalInput, result);
+        if (result.isPresent() && FutureEntities.isFuture(result.get())) {
+            final ListenableFuture<?> future = FutureEntities.toListenableFuture(result.get());
+            Optional<RestxAsyncSupport> asyncSupport = req.getAsyncSupport();
+            if (asyncSupport.isPresent()) {
+                // the response is written from the request and response at hand once the future is completed,
+                // without routing the request again. Filters are done by then, so the current session (and its
+                // changes made by the resource) must be restored for listeners writing it in the response
+                final RestxSession session = RestxSession.current();
+                asyncSupport.get().suspend(future, new RestxAsyncSupport.Continuation() {
+                    @Override
+                    public void resume() throws IOException {
+                        if (session == null) {
+                            sendFutureResult(match, req, resp, ctx, optionalInput, future);
+                            return;
+                        }
+                        try {
+                            session.runIn(new Runnable() {
+                                @Override
+                                public void run() {
+                                    try {
+                                        sendFutureResult(match, req, resp, ctx, optionalInput, future);
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                }
+                            });
+                        } catch (UncheckedIOException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+            } else {
+                // the server can't process the request asynchronously, we have to wait for the result
+                sendFutureResult(match, req, resp, ctx, optionalInput, future);
+            }
+            return;
+        }
+        sendResult(match, req, resp, ctx, optionalInput, result);
+    }
+
+    private void sendFutureResult(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx,
+                                  Optional<?> input, ListenableFuture<?> future) throws IOException {
+        sendResult(match, req, resp, ctx, input, Optional.fromNullable(FutureEntities.getResult(future)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sendResult(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx,
+                            Optional<?> input, Optional<?> result) throws IOException {
+        ctx.getLifecycleListener().onEntityOutput(this, req, resp, input, result);
         if (result.isPresent()) {
-            entityResponseWriter.sendResponse(getSuccessStatus(), result.get(), req, resp, ctx);
+            // for future results, the writer is built for the type of the future result, see EntityResponseWriterRegistry
+            entityResponseWriter.sendResponse(getSuccessStatus(), (O) result.get(), req, resp, ctx);
         } else {
             notFound(match, resp);
         }
@@ -258,6 +311,18 @@ public abstract class StdEntityRoute<I,O> extends StdRoute {
 
     protected abstract Optional<O> doRoute(RestxRequest restxRequest, RestxResponse restxResponse, RestxRequestMatch match, I i) throws IOException;
 
+    /**
+     * Returns the permission checked by this route before calling its resource method, if known.
+     *
+     * Filters answering a request without calling the route (eg with a 304 or a cached response) must check it
+     * before, and should not short circuit the route when it is absent.
+     *
+     * @return the route permission, or absent if unknown
+     */
+    public Optional<Permission> getPermission() {
+        return Optional.absent();
+    }
+
     // Aliases to permissionFactory allowing to have a more readable generated code through APT
     protected Permission hasRole(String role){ return permissionFactory.hasRole(role); }
     protected Permission anyOf(Permission... permissions){ return permissionFactory.anyOf(permissions); }
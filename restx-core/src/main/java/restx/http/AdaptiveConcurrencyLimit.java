@@ -0,0 +1,128 @@
+package restx.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A limit of requests in flight, adapted from observed latency with an AIMD (additive increase, multiplicative
+ * decrease) algorithm.
+ *
+ * The latency of requests processed without contention is estimated as the minimum latency observed over a window of
+ * recent samples. While requests complete within a tolerance of this latency, the limit is increased by one each time a
+ * request completes while the limit is at least half used. When latency goes above this tolerance (and a small slack),
+ * requests are probably queueing somewhere (threads, connections pool, database, ...), and the limit is cut by a
+ * backoff ratio.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // avoids backing off on the jitter of very fast requests
+    private static final long LATENCY_SLACK = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int LATENCY_WINDOW = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+
+    // samples are recorded without locking, so that the limit doesn't become a contention point itself:
+    // concurrent samples may be slightly misattributed to a window, which doesn't matter for a minimum
+    private final AtomicLong noLoadLatency = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong windowMinLatency = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicInteger windowSamples = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        checkArgument(minLimit > 0 && minLimit <= maxLimit,
+                "min limit must be positive and lower than max limit: %s / %s", minLimit, maxLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    /**
+     * Acquires a slot for a request, if the limit is not reached.
+     *
+     * @return true if the request can be processed, in which case release() must be called once it is done.
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot acquired with tryAcquire(), and adapts the limit to the latency of the request.
+     *
+     * @param latencyNanos the time spent processing the request, in nanoseconds
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        onSample(latencyNanos, current);
+    }
+
+    private void onSample(long latencyNanos, int inFlight) {
+        updateMin(windowMinLatency, latencyNanos);
+        long noLoad = updateMin(noLoadLatency, latencyNanos);
+        if (windowSamples.incrementAndGet() == LATENCY_WINDOW) {
+            // measure no load latency again from time to time, it changes with the data, deployments, ...
+            // only the thread completing the window gets here
+            noLoadLatency.set(windowMinLatency.getAndSet(Long.MAX_VALUE));
+            windowSamples.set(0);
+        }
+
+        boolean backOff = latencyNanos > noLoad * LATENCY_TOLERANCE + LATENCY_SLACK;
+        for (;;) {
+            int current = limit.get();
+            int next;
+            if (backOff) {
+                next = Math.max(minLimit, (int) (current * BACKOFF_RATIO));
+            } else if (inFlight * 2 >= current) {
+                next = Math.min(maxLimit, current + 1);
+            } else {
+                return;
+            }
+            if (next == current || limit.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private static long updateMin(AtomicLong min, long value) {
+        for (;;) {
+            long current = min.get();
+            if (value >= current) {
+                return current;
+            }
+            if (min.compareAndSet(current, value)) {
+                return value;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimit{" +
+                "limit=" + limit.get() +
+                ", inFlight=" + inFlight.get() +
+                ", minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit +
+                '}';
+    }
+}
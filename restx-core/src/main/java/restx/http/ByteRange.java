@@ -0,0 +1,119 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * A range of bytes of a representation, as requested with a Range header (see RFC 7233).
+ *
+ * Both first and last positions are inclusive.
+ */
+public class ByteRange {
+    /**
+     * The maximum number of ranges accepted in a Range header, requests with more ranges get the full representation.
+     */
+    public static final int MAX_RANGES = 16;
+
+    /**
+     * Parses the value of a Range header, resolving the ranges against the length of the representation.
+     *
+     * @param range the Range header value, eg "bytes=0-499,-500"
+     * @param length the length of the representation
+     * @return absent if the header is invalid, not in bytes units or has too many ranges: it must then be ignored and
+     * the full representation sent. Otherwise the satisfiable ranges, an empty list meaning that none of the requested
+     * ranges is satisfiable (416).
+     */
+    public static Optional<List<ByteRange>> parse(String range, long length) {
+        String value = range.trim();
+        if (!value.startsWith("bytes=")) {
+            return Optional.absent();
+        }
+        List<String> specs = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(value.substring(6));
+        if (specs.isEmpty() || specs.size() > MAX_RANGES) {
+            return Optional.absent();
+        }
+
+        ImmutableList.Builder<ByteRange> ranges = ImmutableList.builder();
+        for (String spec : specs) {
+            int dash = spec.indexOf('-');
+            if (dash == -1) {
+                return Optional.absent();
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            try {
+                if (first.isEmpty()) {
+                    // suffix range: the last n bytes
+                    long suffixLength = Long.parseLong(last);
+                    if (suffixLength < 0) {
+                        return Optional.absent();
+                    }
+                    if (suffixLength > 0 && length > 0) {
+                        ranges.add(new ByteRange(Math.max(0, length - suffixLength), length - 1));
+                    }
+                } else {
+                    long firstPos = Long.parseLong(first);
+                    long lastPos = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                    if (firstPos < 0 || lastPos < firstPos) {
+                        return Optional.absent();
+                    }
+                    if (firstPos < length) {
+                        ranges.add(new ByteRange(firstPos, Math.min(lastPos, length - 1)));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return Optional.absent();
+            }
+        }
+        return Optional.<List<ByteRange>>of(ranges.build());
+    }
+
+    private final long first;
+    private final long last;
+
+    public ByteRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    public long getLength() {
+        return last - first + 1;
+    }
+
+    /**
+     * @return the value of the Content-Range header for this range, eg "bytes 0-499/1234"
+     */
+    public String toContentRange(long length) {
+        return "bytes " + first + "-" + last + "/" + length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ByteRange byteRange = (ByteRange) o;
+        return first == byteRange.first && last == byteRange.last;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (first ^ (first >>> 32)) + (int) (last ^ (last >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return first + "-" + last;
+    }
+}
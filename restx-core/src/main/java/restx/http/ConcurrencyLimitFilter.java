@@ -0,0 +1,123 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import restx.*;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.Gauge;
+import restx.common.metrics.api.MetricRegistry;
+import restx.factory.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A filter rejecting requests with a 503 status when too many requests are in flight, so that requests don't pile up
+ * in the server queue when the application slows down.
+ *
+ * The limit adapts from observed latency, see AdaptiveConcurrencyLimit. It is either global or per route, depending
+ * on settings. Rejected requests get a Retry-After header, and are not processed at all.
+ *
+ * Limits, requests in flight and rejections are exposed in the metric registry, under the "&lt;CONCURRENCY&gt;" prefix.
+ *
+ * This filter is not active by default, it is enabled with restx.http.concurrencyLimit=true. It is applied before
+ * any other filter, to reject requests as early as possible.
+ *
+ * Note that routes returning a future release their slot once their request is suspended, they are limited only
+ * while they hold a server thread.
+ */
+@Component(priority = -1000)
+public class ConcurrencyLimitFilter implements RestxRouteFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final HttpSettings settings;
+    private final MetricRegistry metrics;
+    private final ConcurrentMap<String, LimitHandler> handlers = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(HttpSettings settings, MetricRegistry metrics) {
+        this.settings = settings;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<RestxHandlerMatch> match(RestxRoute route) {
+        if (!settings.concurrencyLimit()) {
+            return Optional.absent();
+        }
+        String key = settings.concurrencyLimitPerRoute() ? routeKey(route) : "ALL";
+        LimitHandler handler = handlers.get(key);
+        if (handler == null) {
+            LimitHandler newHandler = new LimitHandler(key);
+            handler = handlers.putIfAbsent(key, newHandler);
+            if (handler == null) {
+                handler = newHandler;
+                handler.registerMetrics();
+            }
+        }
+        return Optional.of(new RestxHandlerMatch(new StdRestxRequestMatch("/*"), handler));
+    }
+
+    private static String routeKey(RestxRoute route) {
+        if (route instanceof StdRoute && ((StdRoute) route).getMatcher() instanceof StdRestxRequestMatcher) {
+            StdRestxRequestMatcher matcher = (StdRestxRequestMatcher) ((StdRoute) route).getMatcher();
+            return matcher.getMethod() + " " + matcher.getStdPathPattern();
+        }
+        return route.toString();
+    }
+
+    private class LimitHandler implements RestxHandler {
+        private final String key;
+        private final AdaptiveConcurrencyLimit limit;
+        private final Counter rejected;
+
+        private LimitHandler(String key) {
+            this.key = key;
+            this.limit = new AdaptiveConcurrencyLimit(settings.concurrencyLimitInitial(),
+                    settings.concurrencyLimitMin(), settings.concurrencyLimitMax());
+            this.rejected = metrics.counter("<CONCURRENCY> rejected " + key);
+        }
+
+        private void registerMetrics() {
+            metrics.gauge("<CONCURRENCY> limit " + key, new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return limit.getLimit();
+                }
+            });
+            metrics.gauge("<CONCURRENCY> inFlight " + key, new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return limit.getInFlight();
+                }
+            });
+        }
+
+        @Override
+        public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                throws IOException {
+            if (!limit.tryAcquire()) {
+                rejected.inc();
+                logger.debug("rejecting {}: concurrency limit reached on {} - {}", req, key, limit);
+                resp.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+                resp.setHeader("Retry-After", String.valueOf(settings.concurrencyLimitRetryAfter()));
+                resp.setContentType("text/plain");
+                resp.getWriter().print("Too many requests in flight, please retry later.");
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                ctx.nextHandlerMatch().handle(req, resp, ctx);
+            } finally {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ConcurrencyLimitFilter{" + key + "}";
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.joda.time.DateTime;
+import restx.*;
+import restx.annotations.ValidatedBy;
+import restx.description.OperationDescription;
+import restx.description.ResourceDescription;
+import restx.entity.StdEntityRoute;
+import restx.factory.Component;
+import restx.security.Permission;
+import restx.security.RestxSecurityManager;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * A filter answering conditional GET requests before resource methods annotated with @ValidatedBy are called.
+ *
+ * The validators of the requested resource are obtained from the ResourceValidatorProvider given in the annotation.
+ * When they match the If-None-Match or If-Modified-Since request header, a 304 Not Modified response is sent and the
+ * resource method is not called. Otherwise the resource method is called as usual, and the ETag and Last-Modified
+ * headers are set on the response.
+ *
+ * As with the HTTP spec, If-Modified-Since is ignored when the request has an If-None-Match header.
+ *
+ * The route permission is checked before the validators are provided, so that a 304 never tells an unauthorized
+ * client whether the resource changed. Only routes with a known permission (see StdEntityRoute#getPermission())
+ * are handled.
+ */
+@Component(priority = -80)
+public class ConditionalRequestFilter implements RestxRouteFilter {
+    private static final ImmutableList<String> CONDITIONAL_METHODS = ImmutableList.of("GET", "HEAD");
+
+    private final Collection<ResourceValidatorProvider> providers;
+    private final RestxSecurityManager securityManager;
+
+    public ConditionalRequestFilter(Collection<ResourceValidatorProvider> providers,
+                                    RestxSecurityManager securityManager) {
+        this.providers = providers;
+        this.securityManager = securityManager;
+    }
+
+    @Override
+    public Optional<RestxHandlerMatch> match(RestxRoute route) {
+        if (!(route instanceof StdEntityRoute)) {
+            return Optional.absent();
+        }
+        StdEntityRoute<?, ?> stdRoute = (StdEntityRoute<?, ?>) route;
+        Optional<Permission> permission = stdRoute.getPermission();
+        if (!permission.isPresent()) {
+            // the request can't be answered before the route without checking its permission
+            return Optional.absent();
+        }
+
+        Collection<ResourceDescription> resourceDescriptions = stdRoute.describe();
+        if (resourceDescriptions.isEmpty()) {
+            return Optional.absent();
+        }
+        ResourceDescription resourceDescription = Iterables.getOnlyElement(resourceDescriptions);
+        if (resourceDescription.operations == null || resourceDescription.operations.isEmpty()) {
+            return Optional.absent();
+        }
+        OperationDescription operationDescription = Iterables.getOnlyElement(resourceDescription.operations);
+        if (operationDescription.annotations == null
+                || !CONDITIONAL_METHODS.contains(operationDescription.httpMethod)) {
+            return Optional.absent();
+        }
+        Optional<ValidatedBy> validatedBy = operationDescription.findAnnotation(ValidatedBy.class);
+        if (!validatedBy.isPresent()) {
+            return Optional.absent();
+        }
+
+        return Optional.of(new RestxHandlerMatch(new StdRestxRequestMatch("/*"),
+                new ConditionalRequestHandler(stdRoute, permission.get(), securityManager,
+                        findProvider(validatedBy.get().value(), route))));
+    }
+
+    private ResourceValidatorProvider findProvider(Class<? extends ResourceValidatorProvider> providerClass,
+                                                   RestxRoute route) {
+        for (ResourceValidatorProvider provider : providers) {
+            if (provider.getClass() == providerClass) {
+                return provider;
+            }
+        }
+        throw new IllegalStateException("no component found for " + providerClass.getName()
+                + ", used in @ValidatedBy on " + route + ". Resource validator providers must be components.");
+    }
+
+    private static class ConditionalRequestHandler implements RestxHandler {
+        private final StdRoute route;
+        private final Permission permission;
+        private final RestxSecurityManager securityManager;
+        private final ResourceValidatorProvider provider;
+
+        private ConditionalRequestHandler(StdRoute route, Permission permission,
+                                          RestxSecurityManager securityManager, ResourceValidatorProvider provider) {
+            this.route = route;
+            this.permission = permission;
+            this.securityManager = securityManager;
+            this.provider = provider;
+        }
+
+        @Override
+        public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                throws IOException {
+            // the filter match is not the route one, we need the route match to get path params
+            Optional<? extends RestxRequestMatch> routeMatch = route.getMatcher().match(
+                    req.getHttpMethod(), req.getRestxPath());
+            if (!routeMatch.isPresent()) {
+                ctx.nextHandlerMatch().handle(req, resp, ctx);
+                return;
+            }
+
+            // same check as the route, done before the validators leak anything about the resource
+            securityManager.check(req, routeMatch.get(), permission);
+            Optional<ResourceValidator> validator = provider.provideValidatorFor(routeMatch.get(), req);
+            if (!validator.isPresent()) {
+                ctx.nextHandlerMatch().handle(req, resp, ctx);
+                return;
+            }
+
+            final ResourceValidator resourceValidator = validator.get();
+            if (isNotModified(req, resourceValidator)) {
+                resp.setStatus(HttpStatus.NOT_MODIFIED);
+                writeValidators(resp, resourceValidator);
+                return;
+            }
+
+            ctx.nextHandlerMatch().handle(req, resp, ctx.withListener(new AbstractRouteLifecycleListener() {
+                @Override
+                public void onBeforeWriteContent(RestxRequest req, RestxResponse resp) {
+                    writeValidators(resp, resourceValidator);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Checks the conditional headers of a request against the validators of the requested resource.
+     *
+     * @return true if the request should be answered with a 304 Not Modified status
+     */
+    public static boolean isNotModified(RestxRequest req, ResourceValidator validator) {
+        Optional<String> ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch.isPresent()) {
+            return validator.getETag().isPresent() && eTagMatches(ifNoneMatch.get(), validator.getETag().get());
+        }
+
+        Optional<String> ifModifiedSince = req.getHeader("If-Modified-Since");
+        if (ifModifiedSince.isPresent() && validator.getLastModified().isPresent()) {
+            Optional<Date> since = parseDate(ifModifiedSince.get());
+            // http dates have a one second precision
+            return since.isPresent()
+                    && validator.getLastModified().get().getMillis() / 1000 <= since.get().getTime() / 1000;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks the If-Range header of a request against the validators of the requested resource.
+     *
+     * If-Range uses strong comparison: weak entity tags never match, and the date must be the exact last modification
+     * date of the resource.
+     *
+     * @return true if the Range header of the request should be honored, false if the full representation is to be sent
+     */
+    public static boolean isRangeApplicable(RestxRequest req, ResourceValidator validator) {
+        Optional<String> ifRange = req.getHeader("If-Range");
+        if (!ifRange.isPresent()) {
+            return true;
+        }
+
+        String condition = ifRange.get().trim();
+        if (condition.startsWith("\"") || condition.startsWith("W/")) {
+            return validator.getETag().isPresent() && !condition.startsWith("W/")
+                    && condition.equals(validator.getETag().get());
+        }
+
+        Optional<Date> date = parseDate(condition);
+        return date.isPresent() && validator.getLastModified().isPresent()
+                && validator.getLastModified().get().getMillis() / 1000 == date.get().getTime() / 1000;
+    }
+
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        String weakETag = weak(eTag);
+        for (String tag : Splitter.on(',').trimResults().omitEmptyStrings().split(ifNoneMatch)) {
+            // If-None-Match uses weak comparison
+            if ("*".equals(tag) || weak(tag).equals(weakETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static Optional<Date> parseDate(String date) {
+        try {
+            return Optional.of(ExpiresHeaderFilter.createRFC1123DateFormat(Locale.US).parse(date));
+        } catch (ParseException e) {
+            return Optional.absent();
+        }
+    }
+
+    /**
+     * Sets the ETag and Last-Modified headers of a response from the given validators.
+     */
+    public static void writeValidators(RestxResponse resp, ResourceValidator validator) {
+        if (validator.getETag().isPresent()) {
+            resp.setHeader("ETag", validator.getETag().get());
+        }
+        if (validator.getLastModified().isPresent()) {
+            DateTime lastModified = validator.getLastModified().get();
+            resp.setHeader("Last-Modified",
+                    ExpiresHeaderFilter.createRFC1123DateFormat(Locale.US).format(lastModified.toDate()));
+        }
+    }
+}
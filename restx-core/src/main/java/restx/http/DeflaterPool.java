@@ -0,0 +1,37 @@
+package restx.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A pool of Deflater instances, configured for gzip (raw deflate data) with a given level.
+ *
+ * Deflaters hold native memory which is released only when they are ended or finalized, reusing them avoids
+ * allocating and releasing it for each compressed response.
+ */
+class DeflaterPool {
+    private final int level;
+    private final BlockingQueue<Deflater> idle;
+
+    DeflaterPool(int level, int maxIdle) {
+        this.level = level;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package restx.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * An output stream writing gzip data with a given Deflater, which is not ended when the stream is closed.
+ *
+ * This is the same as GZIPOutputStream, which doesn't allow to provide the Deflater, so that it can be pooled.
+ * It also measures the time spent compressing.
+ */
+class GzipDeflaterOutputStream extends DeflaterOutputStream {
+    private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, // magic number
+            Deflater.DEFLATED,        // compression method
+            0,                        // flags
+            0, 0, 0, 0,               // modification time
+            0,                        // extra flags
+            0                         // operating system
+    };
+    static final int HEADER_AND_TRAILER_LENGTH = HEADER.length + 8;
+
+    private final CRC32 crc = new CRC32();
+    private long compressionNanos;
+
+    GzipDeflaterOutputStream(OutputStream out, Deflater deflater) throws IOException {
+        // sync flush, so that flushing a streamed response actually sends what has been written so far
+        super(out, deflater, 8192, true);
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        super.write(b, off, len);
+        crc.update(b, off, len);
+        compressionNanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (def.finished()) {
+            return;
+        }
+        long start = System.nanoTime();
+        super.finish();
+        writeInt((int) crc.getValue());
+        writeInt((int) def.getBytesRead());
+        compressionNanos += System.nanoTime() - start;
+    }
+
+    private void writeInt(int i) throws IOException {
+        // gzip uses little endian
+        out.write(i & 0xff);
+        out.write((i >> 8) & 0xff);
+        out.write((i >> 16) & 0xff);
+        out.write((i >> 24) & 0xff);
+    }
+
+    long getCompressionNanos() {
+        return compressionNanos;
+    }
+}
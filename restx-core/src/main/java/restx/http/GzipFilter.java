@@ -4,27 +4,69 @@ import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import restx.*;
-import restx.factory.Component;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.Gauge;
+import restx.common.metrics.api.MetricRegistry;
+import restx.common.metrics.api.Timer;
+import restx.common.metrics.dummy.DummyMetricRegistry;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 /**
  * A filter to automatically gzip responses when supported by the client.
  *
  * You need to @Provide it to enable it, it's not activated by default.
+ *
+ * Responses smaller than restx.http.gzip.minSize are sent as is, as well as responses which already have a
+ * Content-Encoding (eg precompressed resources, see ResourcesRoute) or a Content-Range (partial content, see FSRouter).
+ * Compressors are pooled, and the compression level is set with restx.http.gzip.level.
+ *
+ * When provided with the MetricRegistry, the time spent compressing, the compression ratio and the number of idle
+ * compressors are exposed under the "&lt;GZIP&gt;" prefix.
  */
 public class GzipFilter implements RestxFilter, RestxHandler {
     private final ImmutableCollection<RestxRequestMatcher> matchers;
+    private final int minSize;
+    private final DeflaterPool deflaterPool;
+    private final Timer compressionTimer;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
 
     public GzipFilter(HttpSettings httpSettings) {
+        this(httpSettings, new DummyMetricRegistry());
+    }
+
+    public GzipFilter(HttpSettings httpSettings, MetricRegistry metrics) {
         ImmutableList.Builder<RestxRequestMatcher> builder = ImmutableList.builder();
         for (String path : httpSettings.gzipPaths()) {
             builder.add(new StdRestxRequestMatcher("GET", path));
         }
 
         matchers = builder.build();
+        minSize = httpSettings.gzipMinSize();
+        deflaterPool = new DeflaterPool(httpSettings.gzipLevel(), httpSettings.gzipDeflaterPoolSize());
+
+        compressionTimer = metrics.timer("<GZIP> compression");
+        bytesIn = metrics.counter("<GZIP> bytes in");
+        bytesOut = metrics.counter("<GZIP> bytes out");
+        metrics.gauge("<GZIP> ratio", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                long in = bytesIn.getCount();
+                return in == 0 ? 1d : (double) bytesOut.getCount() / in;
+            }
+        });
+        metrics.gauge("<GZIP> idle deflaters", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return deflaterPool.idleCount();
+            }
+        });
     }
 
     @Override
@@ -62,32 +104,115 @@ public class GzipFilter implements RestxFilter, RestxHandler {
     }
 
     @Override
-    public void handle(RestxRequestMatch restxRequestMatch, RestxRequest restxRequest, RestxResponse restxResponse,
+    public void handle(RestxRequestMatch restxRequestMatch, RestxRequest restxRequest, final RestxResponse restxResponse,
                        RestxContext restxContext) throws IOException {
-        try {
-            restxContext.nextHandlerMatch().handle(restxRequest, new RestxResponseWrapper(restxResponse) {
-                private GZIPOutputStream gzipOutputStream;
-
-                @Override
-                public OutputStream getOutputStream() throws IOException {
-                    setHeader("Content-Encoding", "gzip");
-                    return gzipOutputStream = new GZIPOutputStream(super.getOutputStream());
+        restxResponse.setHeader("Vary", "Accept-Encoding");
+        restxContext.nextHandlerMatch().handle(restxRequest, new RestxResponseWrapper(restxResponse) {
+            private OutputStream outputStream;
+            private PrintWriter writer;
+
+            @Override
+            public PrintWriter getWriter() throws IOException {
+                return writer = super.getWriter();
+            }
+
+            @Override
+            public OutputStream getOutputStream() throws IOException {
+                if (outputStream == null) {
+                    // ranges are positions in the identity representation, partial content is never compressed
+                    outputStream = getHeader("Content-Encoding").isPresent() || getHeader("Content-Range").isPresent()
+                            ? super.getOutputStream() : new GzipResponseOutputStream(restxResponse);
                 }
+                return outputStream;
+            }
 
-                @Override
-                public void close() throws Exception {
-                    if (gzipOutputStream != null) {
-                        try {
-                            gzipOutputStream.close();
-                        } finally {
-                            gzipOutputStream = null;
-                        }
+            @Override
+            public void close() throws Exception {
+                if (writer != null) {
+                    // the writer may buffer content, which must be written before finishing compression
+                    writer.flush();
+                }
+                if (outputStream != null) {
+                    try {
+                        outputStream.close();
+                    } finally {
+                        outputStream = null;
                     }
-                    super.close();
                 }
-            }, restxContext);
-        } finally {
+                super.close();
+            }
+        }, restxContext);
+    }
 
+    /**
+     * Buffers the response until minSize is reached, and compresses it from then on.
+     */
+    private class GzipResponseOutputStream extends OutputStream {
+        private final RestxResponse response;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Deflater deflater;
+        private GzipDeflaterOutputStream gzipOutputStream;
+        private boolean closed;
+
+        private GzipResponseOutputStream(RestxResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (gzipOutputStream == null) {
+                if (buffer.size() + len < minSize) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                startCompression();
+            }
+            gzipOutputStream.write(b, off, len);
+        }
+
+        private void startCompression() throws IOException {
+            // the header must be set before getting the response output stream
+            response.setHeader("Content-Encoding", "gzip");
+            deflater = deflaterPool.borrow();
+            gzipOutputStream = new GzipDeflaterOutputStream(response.getOutputStream(), deflater);
+            buffer.writeTo(gzipOutputStream);
+            buffer = null;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // while buffering, there is nothing worth sending yet
+            if (gzipOutputStream != null) {
+                gzipOutputStream.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (gzipOutputStream == null) {
+                OutputStream out = response.getOutputStream();
+                buffer.writeTo(out);
+                out.close();
+                return;
+            }
+            try {
+                gzipOutputStream.finish();
+                compressionTimer.update(gzipOutputStream.getCompressionNanos(), TimeUnit.NANOSECONDS);
+                bytesIn.inc(deflater.getBytesRead());
+                bytesOut.inc(deflater.getBytesWritten() + GzipDeflaterOutputStream.HEADER_AND_TRAILER_LENGTH);
+                gzipOutputStream.close();
+            } finally {
+                deflaterPool.release(deflater);
+            }
         }
     }
 }
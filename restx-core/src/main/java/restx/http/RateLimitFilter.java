@@ -0,0 +1,124 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
+import restx.*;
+import restx.annotations.RateLimited;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.MetricRegistry;
+import restx.description.OperationDescription;
+import restx.description.ResourceDescription;
+import restx.factory.Component;
+import restx.security.RestxPrincipal;
+import restx.security.RestxSession;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A filter limiting the rate of requests per client on resource methods annotated with @RateLimited.
+ *
+ * Each route gets its own table of token buckets, keyed by the principal name when the request is authenticated,
+ * or by the client address otherwise (which takes X-Forwarded-For into account, see HttpSettings#forwardedSupport()).
+ *
+ * Requests get X-RateLimit-Limit and X-RateLimit-Remaining headers. Requests above the limit are rejected with
+ * a 429 status and a Retry-After header, rejections are counted in the metric registry under the
+ * "&lt;RATE_LIMIT&gt; rejected" prefix.
+ *
+ * The filter is applied after authentication filters, so that the principal is known.
+ */
+@Component(priority = -150)
+public class RateLimitFilter implements RestxRouteFilter {
+    private final HttpSettings settings;
+    private final MetricRegistry metrics;
+    // handlers are kept across routing builds, so that clients buckets are not reset when routing is built again
+    private final ConcurrentMap<String, RateLimitHandler> handlers = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(HttpSettings settings, MetricRegistry metrics) {
+        this.settings = settings;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<RestxHandlerMatch> match(RestxRoute route) {
+        if (!(route instanceof StdRoute)) {
+            return Optional.absent();
+        }
+
+        Collection<ResourceDescription> resourceDescriptions = ((StdRoute) route).describe();
+        if (resourceDescriptions.isEmpty()) {
+            return Optional.absent();
+        }
+        ResourceDescription resourceDescription = Iterables.getOnlyElement(resourceDescriptions);
+        if (resourceDescription.operations == null || resourceDescription.operations.isEmpty()) {
+            return Optional.absent();
+        }
+        OperationDescription operationDescription = Iterables.getOnlyElement(resourceDescription.operations);
+        if (operationDescription.annotations == null) {
+            return Optional.absent();
+        }
+        Optional<RateLimited> rateLimited = operationDescription.findAnnotation(RateLimited.class);
+        if (!rateLimited.isPresent()) {
+            return Optional.absent();
+        }
+
+        String key = operationDescription.httpMethod + " " + resourceDescription.stdPath;
+        String handlerKey = key + " " + rateLimited.get().perSecond() + "/" + rateLimited.get().burst();
+        RateLimitHandler handler = handlers.get(handlerKey);
+        if (handler == null) {
+            RateLimitHandler newHandler = new RateLimitHandler(
+                    rateLimited.get(), metrics.counter("<RATE_LIMIT> rejected " + key));
+            handler = handlers.putIfAbsent(handlerKey, newHandler);
+            if (handler == null) {
+                handler = newHandler;
+            }
+        }
+        return Optional.of(new RestxHandlerMatch(new StdRestxRequestMatch("/*"), handler));
+    }
+
+    private class RateLimitHandler implements RestxHandler {
+        private final TokenBuckets buckets;
+        private final String limitHeader;
+        private final String retryAfterHeader;
+        private final Counter rejected;
+
+        private RateLimitHandler(RateLimited rateLimited, Counter rejected) {
+            int burst = rateLimited.burst() > 0 ? rateLimited.burst() : (int) Math.ceil(rateLimited.perSecond());
+            this.buckets = new TokenBuckets(rateLimited.perSecond(), burst, settings.rateLimitMaxKeys());
+            this.limitHeader = String.valueOf(burst);
+            // a rejected client has less than one token, it gets one in at most 1 / perSecond seconds
+            this.retryAfterHeader = String.valueOf((long) Math.max(1, Math.ceil(1 / rateLimited.perSecond())));
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                throws IOException {
+            int remaining = buckets.tryAcquire(clientKey(req), System.nanoTime());
+            resp.setHeader("X-RateLimit-Limit", limitHeader);
+            resp.setHeader("X-RateLimit-Remaining", String.valueOf(Math.max(0, remaining)));
+            if (remaining < 0) {
+                rejected.inc();
+                resp.setStatus(HttpStatus.TOO_MANY_REQUESTS);
+                resp.setHeader("Retry-After", retryAfterHeader);
+                resp.setContentType("text/plain");
+                resp.getWriter().print("Rate limit exceeded, please retry later.");
+                return;
+            }
+            ctx.nextHandlerMatch().handle(req, resp, ctx);
+        }
+
+        private String clientKey(RestxRequest req) {
+            RestxSession session = RestxSession.current();
+            if (session != null) {
+                Optional<? extends RestxPrincipal> principal = session.getPrincipal();
+                if (principal.isPresent()) {
+                    return "principal:" + principal.get().getName();
+                }
+            }
+            return "address:" + req.getClientAddress();
+        }
+    }
+}
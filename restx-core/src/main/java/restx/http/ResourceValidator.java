@@ -0,0 +1,44 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import org.joda.time.DateTime;
+
+/**
+ * The validators of the current representation of a resource: its entity tag and / or its last modification date.
+ *
+ * They are used to answer conditional requests (If-None-Match / If-Modified-Since) with a 304 Not Modified status,
+ * see ResourceValidatorProvider.
+ */
+public class ResourceValidator {
+    public static ResourceValidator eTag(String eTag) {
+        return new ResourceValidator(Optional.of(eTag), Optional.<DateTime>absent());
+    }
+
+    public static ResourceValidator lastModified(DateTime lastModified) {
+        return new ResourceValidator(Optional.<String>absent(), Optional.of(lastModified));
+    }
+
+    private final Optional<String> eTag;
+    private final Optional<DateTime> lastModified;
+
+    public ResourceValidator(Optional<String> eTag, Optional<DateTime> lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public Optional<String> getETag() {
+        return eTag;
+    }
+
+    public Optional<DateTime> getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceValidator{" +
+                "eTag=" + eTag +
+                ", lastModified=" + lastModified +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+
+/**
+ * A resource validator provider gives the validators of a resource from the request, before the resource method is
+ * called.
+ *
+ * Contrary to ETagProvider which is called with the entity returned by the resource method, it is meant to be cheap
+ * (eg reading a version or modification date stored alongside the entity), so that a conditional request can be
+ * answered with a 304 status without loading the entity at all.
+ *
+ * Providers are components, bound to resource methods with the @ValidatedBy annotation.
+ */
+public interface ResourceValidatorProvider {
+    /**
+     * Provides the validators of the resource requested.
+     *
+     * @param match the route match, giving access to path params
+     * @param req the request
+     * @return the validators of the resource, or absent if they are not known (eg the resource doesn't exist), in
+     * which case the resource method is always called.
+     */
+    Optional<ResourceValidator> provideValidatorFor(RestxRequestMatch match, RestxRequest req);
+}
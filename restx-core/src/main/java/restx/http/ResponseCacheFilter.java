@@ -0,0 +1,333 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import org.joda.time.Duration;
+import org.joda.time.Instant;
+import restx.*;
+import restx.annotations.Cached;
+import restx.common.MorePeriods;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.Gauge;
+import restx.common.metrics.api.MetricRegistry;
+import restx.description.OperationDescription;
+import restx.description.ResourceDescription;
+import restx.entity.StdEntityRoute;
+import restx.factory.Component;
+import restx.security.Permission;
+import restx.security.PermissionFactory;
+import restx.security.RestxPrincipal;
+import restx.security.RestxSecurityManager;
+import restx.security.RestxSession;
+import restx.security.RestxSessionCookieDescriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A filter caching the responses of GET resource methods annotated with @Cached.
+ *
+ * The response is cached once fully written: status, content type, headers and bytes. Later requests with the same
+ * cache key are answered from the cache, without calling the resource method nor serializing the entity. The cache
+ * key is made of the route, the path params, the query params listed in the varyBy attribute of the annotation, and
+ * the principal name if its perPrincipal attribute is set.
+ *
+ * The route permission is checked before a cached response is served, as the route would do. Routes which are not
+ * open must cache their responses per principal, the filter refuses them otherwise.
+ *
+ * Only 200 responses without cookies are cached. The cache is shared by all routes, bounded by
+ * restx.http.responseCache.maxSizeKB, and evicts least recently used responses when full.
+ *
+ * The filter priority puts it after filters provided with a default priority, such as GzipFilter: the response is
+ * cached before compression, and compressed again when served to clients accepting it.
+ *
+ * Hits, misses and evictions are counted in the metric registry, under the "&lt;RESPONSE_CACHE&gt;" prefix.
+ */
+@Component(priority = 100)
+public class ResponseCacheFilter implements RestxRouteFilter {
+    private final RestxSecurityManager securityManager;
+    private final PermissionFactory permissionFactory;
+    private final Cache<String, CachedResponse> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ResponseCacheFilter(HttpSettings settings, MetricRegistry metrics,
+                               RestxSecurityManager securityManager, PermissionFactory permissionFactory) {
+        this.securityManager = securityManager;
+        this.permissionFactory = permissionFactory;
+        this.hits = metrics.counter("<RESPONSE_CACHE> hits");
+        this.misses = metrics.counter("<RESPONSE_CACHE> misses");
+        this.evictions = metrics.counter("<RESPONSE_CACHE> evictions");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(settings.responseCacheMaxSizeKB() * 1024L)
+                .weigher(new Weigher<String, CachedResponse>() {
+                    @Override
+                    public int weigh(String key, CachedResponse response) {
+                        return key.length() + response.content.length;
+                    }
+                })
+                .removalListener(new RemovalListener<String, CachedResponse>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<String, CachedResponse> notification) {
+                        if (notification.wasEvicted()) {
+                            evictions.inc();
+                        }
+                    }
+                })
+                .build();
+        metrics.gauge("<RESPONSE_CACHE> size", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.size();
+            }
+        });
+    }
+
+    @Override
+    public Optional<RestxHandlerMatch> match(RestxRoute route) {
+        if (!(route instanceof StdEntityRoute)) {
+            return Optional.absent();
+        }
+        StdEntityRoute<?, ?> stdRoute = (StdEntityRoute<?, ?>) route;
+
+        Collection<ResourceDescription> resourceDescriptions = stdRoute.describe();
+        if (resourceDescriptions.isEmpty()) {
+            return Optional.absent();
+        }
+        ResourceDescription resourceDescription = Iterables.getOnlyElement(resourceDescriptions);
+        if (resourceDescription.operations == null || resourceDescription.operations.isEmpty()) {
+            return Optional.absent();
+        }
+        OperationDescription operationDescription = Iterables.getOnlyElement(resourceDescription.operations);
+        if (operationDescription.annotations == null || !"GET".equals(operationDescription.httpMethod)) {
+            return Optional.absent();
+        }
+        Optional<Cached> cached = operationDescription.findAnnotation(Cached.class);
+        if (!cached.isPresent()) {
+            return Optional.absent();
+        }
+        Optional<Permission> permission = stdRoute.getPermission();
+        if (!permission.isPresent()) {
+            // cached responses can't be served without checking the route permission
+            return Optional.absent();
+        }
+        if (!permissionFactory.isOpen(permission.get()) && !cached.get().perPrincipal()) {
+            throw new IllegalStateException("@Cached on " + route + " must set perPrincipal = true:"
+                    + " the route is not open (" + permission.get() + "), its responses may depend on the principal");
+        }
+
+        return Optional.of(new RestxHandlerMatch(new StdRestxRequestMatch("/*"), new ResponseCacheHandler(
+                stdRoute, permission.get(), "GET " + resourceDescription.stdPath, cached.get())));
+    }
+
+    /**
+     * Discards all cached responses.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private class ResponseCacheHandler implements RestxHandler {
+        private final StdRoute route;
+        private final Permission permission;
+        private final String routeKey;
+        private final long ttl;
+        private final ImmutableList<String> varyBy;
+        private final boolean perPrincipal;
+
+        private ResponseCacheHandler(StdRoute route, Permission permission, String routeKey, Cached cached) {
+            this.route = route;
+            this.permission = permission;
+            this.routeKey = routeKey;
+            this.ttl = MorePeriods.parsePeriod(cached.ttl(), Locale.US).toDurationFrom(Instant.now()).getMillis();
+            this.varyBy = ImmutableList.copyOf(cached.varyBy());
+            this.perPrincipal = cached.perPrincipal();
+        }
+
+        @Override
+        public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                throws IOException {
+            // the filter match is not the route one, we need the route match to get path params
+            Optional<? extends RestxRequestMatch> routeMatch = route.getMatcher().match(
+                    req.getHttpMethod(), req.getRestxPath());
+            if (!routeMatch.isPresent()) {
+                ctx.nextHandlerMatch().handle(req, resp, ctx);
+                return;
+            }
+
+            String key = cacheKey(req, routeMatch.get());
+            CachedResponse cachedResponse = cache.getIfPresent(key);
+            if (cachedResponse != null) {
+                if (cachedResponse.expiresAt > System.currentTimeMillis()) {
+                    // same check as the route, which is not called
+                    securityManager.check(req, routeMatch.get(), permission);
+                    hits.inc();
+                    cachedResponse.writeTo(resp);
+                    return;
+                }
+                cache.invalidate(key);
+            }
+            misses.inc();
+
+            final CachingResponse cachingResponse = new CachingResponse(resp, key, ttl);
+            ctx.nextHandlerMatch().handle(req, cachingResponse, ctx);
+            Optional<RestxAsyncSupport> asyncSupport = req.getAsyncSupport();
+            if (asyncSupport.isPresent() && asyncSupport.get().isSuspended()) {
+                asyncSupport.get().addCompletionListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        cachingResponse.store();
+                    }
+                });
+            } else {
+                cachingResponse.store();
+            }
+        }
+
+        private String cacheKey(RestxRequest req, RestxRequestMatch routeMatch) {
+            StringBuilder key = new StringBuilder(routeKey);
+            for (Map.Entry<String, String> pathParam : new TreeMap<>(routeMatch.getPathParams()).entrySet()) {
+                key.append('|').append(pathParam.getKey()).append('=').append(pathParam.getValue());
+            }
+            for (String param : varyBy) {
+                key.append('?').append(param).append('=').append(req.getQueryParams(param));
+            }
+            if (perPrincipal) {
+                RestxSession session = RestxSession.current();
+                Optional<? extends RestxPrincipal> principal = session == null
+                        ? Optional.<RestxPrincipal>absent() : session.getPrincipal();
+                key.append('@').append(principal.isPresent() ? principal.get().getName() : "");
+            }
+            return key.toString();
+        }
+    }
+
+    /**
+     * A response recording what is written to it, which is cached once the route has written it.
+     */
+    private class CachingResponse extends RestxResponseWrapper {
+        private final String key;
+        private final long ttl;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private String contentType;
+        private boolean cacheable = true;
+        private OutputStream outputStream;
+        private PrintWriter writer;
+
+        private CachingResponse(RestxResponse restxResponse, String key, long ttl) {
+            super(restxResponse);
+            this.key = key;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public RestxResponse setContentType(String s) {
+            contentType = s;
+            return super.setContentType(s);
+        }
+
+        @Override
+        public RestxResponse setHeader(String headerName, String header) {
+            headers.put(headerName, header);
+            return super.setHeader(headerName, header);
+        }
+
+        @Override
+        public RestxResponse addCookie(String cookie, String value, RestxSessionCookieDescriptor cookieDescriptor) {
+            cacheable = false;
+            return super.addCookie(cookie, value, cookieDescriptor);
+        }
+
+        @Override
+        public RestxResponse addCookie(String cookie, String value, RestxSessionCookieDescriptor cookieDescriptor,
+                                       Duration expires) {
+            cacheable = false;
+            return super.addCookie(cookie, value, cookieDescriptor, expires);
+        }
+
+        @Override
+        public RestxResponse clearCookie(String cookie, RestxSessionCookieDescriptor cookieDescriptor) {
+            cacheable = false;
+            return super.clearCookie(cookie, cookieDescriptor);
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new FilterOutputStream(super.getOutputStream()) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        content.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        content.write(b, off, len);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return writer = super.getWriter();
+        }
+
+        private void store() {
+            if (writer != null) {
+                // pushes what is still buffered in the writer to the recorded content
+                writer.flush();
+            }
+            if (cacheable && getStatus() == HttpStatus.OK) {
+                cache.put(key, new CachedResponse(contentType, ImmutableMap.copyOf(headers),
+                        content.toByteArray(), System.currentTimeMillis() + ttl));
+            }
+        }
+    }
+
+    private static class CachedResponse {
+        private final String contentType;
+        private final ImmutableMap<String, String> headers;
+        private final byte[] content;
+        private final long expiresAt;
+
+        private CachedResponse(String contentType, ImmutableMap<String, String> headers,
+                               byte[] content, long expiresAt) {
+            this.contentType = contentType;
+            this.headers = headers;
+            this.content = content;
+            this.expiresAt = expiresAt;
+        }
+
+        private void writeTo(RestxResponse resp) throws IOException {
+            resp.setStatus(HttpStatus.OK);
+            if (contentType != null) {
+                resp.setContentType(contentType);
+            }
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                resp.setHeader(header.getKey(), header.getValue());
+            }
+            resp.getOutputStream().write(content);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package restx.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A table of token buckets, one per key, with the same rate and capacity.
+ *
+ * The table is split in lock stripes selected by key hash, so that concurrent requests for different keys rarely
+ * contend. Each stripe keeps its buckets in access order and is bounded: least recently used buckets are evicted
+ * when a stripe is full, and buckets which have been idle long enough to be full again are evicted anytime, dropping
+ * them is the same as creating them again.
+ */
+public class TokenBuckets {
+    private static final int STRIPES = 64;
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final long idleNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param perSecond the number of tokens added to each bucket per second
+     * @param capacity the maximum number of tokens of a bucket, which is also its initial number of tokens
+     * @param maxKeys the maximum number of buckets kept in the table
+     */
+    public TokenBuckets(double perSecond, int capacity, int maxKeys) {
+        checkArgument(perSecond > 0, "rate must be positive: %s", perSecond);
+        checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+        this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.idleNanos = (long) Math.ceil(capacity / tokensPerNano);
+        int maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @param key the bucket key
+     * @param nowNanos the current time, as given by System.nanoTime()
+     * @return the number of tokens remaining in the bucket after taking one, or -1 if the bucket is empty
+     */
+    public int tryAcquire(String key, long nowNanos) {
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                stripe.evictIdle(nowNanos);
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.put(key, bucket);
+            } else {
+                bucket.refill(nowNanos);
+            }
+            if (bucket.tokens < 1) {
+                return -1;
+            }
+            bucket.tokens -= 1;
+            return (int) bucket.tokens;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+
+        private void refill(long nowNanos) {
+            long elapsed = nowNanos - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = nowNanos;
+            }
+        }
+    }
+
+    private final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxKeys;
+
+        private Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        private void evictIdle(long nowNanos) {
+            // in access order, so we can stop at the first bucket which is not idle
+            Iterator<Bucket> iterator = values().iterator();
+            while (iterator.hasNext()) {
+                if (nowNanos - iterator.next().lastRefill < idleNanos) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
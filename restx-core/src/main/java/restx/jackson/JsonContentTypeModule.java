@@ -70,6 +70,10 @@ public class JsonContentTypeModule {
                 }
                 Class<?> clazz = getCTJacksonViewClass(valueType, contentType, Views.Transient.class);
                 ObjectWriter writer = objectWriter.withView(clazz);
+                if (JsonStreamingEntityResponseWriter.isStreamed(valueType)) {
+                    // lazy sequences are written element by element, the element type is handled by the writer
+                    return Optional.of(JsonStreamingEntityResponseWriter.<T>using(valueType, writer));
+                }
                 if (valueType instanceof ParameterizedType) {
                     /* we set the type on writer only for parameterized types:
                      * if we set it for regular types, jackson will build the serializer based on this type, and not the
@@ -1,6 +1,8 @@
 package restx.jackson;
 
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
 import restx.entity.AbstractEntityResponseWriter;
 import restx.RestxContext;
 import restx.RestxRequest;
@@ -8,6 +10,7 @@ import restx.RestxResponse;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 
 /**
  * Date: 23/10/13
@@ -27,6 +30,13 @@ public class JsonEntityResponseWriter<T> extends AbstractEntityResponseWriter<T>
 
     @Override
     protected void write(T value, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
-        writer.writeValue(resp.getWriter(), value);
+        Optional<Charset> charset = resp.getCharset();
+        if (!charset.isPresent() || Charsets.UTF_8.equals(charset.get())) {
+            // jackson generates UTF-8 straight to bytes, with its own recycled buffers, this is much faster than
+            // going through the response writer which encodes chars back to bytes
+            writer.writeValue(resp.getOutputStream(), value);
+        } else {
+            writer.writeValue(resp.getWriter(), value);
+        }
     }
 }
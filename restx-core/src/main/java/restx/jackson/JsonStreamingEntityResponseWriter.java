@@ -0,0 +1,109 @@
+package restx.jackson;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import restx.RestxContext;
+import restx.RestxRequest;
+import restx.RestxResponse;
+import restx.common.Types;
+import restx.entity.AbstractEntityResponseWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * A JSON entity response writer for Iterable, Iterator and Stream entities, which writes them as a JSON array
+ * element by element.
+ *
+ * Elements are pulled from the entity only when they are written, and the response is flushed periodically, so that
+ * large results don't have to be held in memory. Once written, the source is closed if it is closeable.
+ */
+public class JsonStreamingEntityResponseWriter<T> extends AbstractEntityResponseWriter<T> {
+    /**
+     * Number of elements written between two flushes of the response.
+     */
+    private static final int FLUSH_INTERVAL = 100;
+
+    public static <T> JsonStreamingEntityResponseWriter<T> using(Type type, ObjectWriter writer) {
+        return new JsonStreamingEntityResponseWriter<>(type, writer);
+    }
+
+    /**
+     * Tells if entities of given type are streamed by this writer.
+     *
+     * @param type the entity type
+     * @return true if the raw type is Iterable, Iterator or Stream
+     */
+    public static boolean isStreamed(Type type) {
+        Class<?> rawType = Types.getRawType(type);
+        return rawType == Iterable.class || rawType == Iterator.class || rawType == Stream.class;
+    }
+
+    private final ObjectWriter elementWriter;
+
+    private JsonStreamingEntityResponseWriter(Type type, ObjectWriter writer) {
+        super(type, "application/json");
+        writer = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (type instanceof ParameterizedType
+                && ((ParameterizedType) type).getActualTypeArguments()[0] instanceof ParameterizedType) {
+            // same as for regular json writer, we set the type for parameterized types only to keep polymorphism
+            writer = writer.withType(TypeFactory.defaultInstance().constructType(
+                    ((ParameterizedType) type).getActualTypeArguments()[0]));
+        }
+        this.elementWriter = writer;
+    }
+
+    @Override
+    protected void write(T value, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
+        Iterator<?> iterator;
+        if (value instanceof Stream) {
+            iterator = ((Stream<?>) value).iterator();
+        } else if (value instanceof Iterator) {
+            iterator = (Iterator<?>) value;
+        } else {
+            iterator = ((Iterable<?>) value).iterator();
+        }
+
+        try {
+            Optional<Charset> charset = resp.getCharset();
+            SequenceWriter sequenceWriter = !charset.isPresent() || Charsets.UTF_8.equals(charset.get())
+                    ? elementWriter.writeValuesAsArray(resp.getOutputStream())
+                    : elementWriter.writeValuesAsArray(resp.getWriter());
+
+            int count = 0;
+            while (iterator.hasNext()) {
+                sequenceWriter.write(iterator.next());
+                if (++count % FLUSH_INTERVAL == 0) {
+                    sequenceWriter.flush();
+                }
+            }
+            // closing the sequence writer ends the array, we do it only on success to avoid sending a truncated
+            // array looking like a valid response
+            sequenceWriter.close();
+        } finally {
+            close(value, iterator);
+        }
+    }
+
+    private void close(T value, Iterator<?> iterator) throws IOException {
+        try {
+            if (value instanceof AutoCloseable) {
+                ((AutoCloseable) value).close();
+            } else if (iterator instanceof AutoCloseable) {
+                ((AutoCloseable) iterator).close();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
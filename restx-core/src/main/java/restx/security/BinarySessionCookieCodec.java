@@ -0,0 +1,166 @@
+package restx.security;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.BaseEncoding;
+import org.joda.time.DateTime;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Encodes restx sessions in a single compact cookie, see RestxSessionCookieDescriptor.Encoding#BINARY.
+ *
+ * The cookie value is made of the base64url encoded payload, a dot, and the signature of the encoded payload:
+ * <pre>
+ * payload := version(1 byte) expires(varint, epoch seconds) count(varint) entry*
+ * entry   := key value
+ * key     := varint index in KEYS_DICTIONARY, 1 based | 0 string
+ * value   := string
+ * string  := length(varint) utf8 bytes
+ * </pre>
+ */
+public class BinarySessionCookieCodec {
+    public static final byte VERSION = 1;
+
+    /**
+     * Well known session keys, encoded with their index in this list instead of their name.
+     *
+     * This list can only be appended to, otherwise cookies sent by clients would be decoded with the wrong keys.
+     */
+    public static final ImmutableList<String> KEYS_DICTIONARY = ImmutableList.of(RestxPrincipal.SESSION_DEF_KEY);
+
+    private static final BaseEncoding BASE64URL = BaseEncoding.base64Url().omitPadding();
+
+    /**
+     * The entries of a decoded session cookie, and its expiration date.
+     */
+    public static class DecodedSession {
+        private final ImmutableMap<String, String> entries;
+        private final DateTime expires;
+
+        private DecodedSession(ImmutableMap<String, String> entries, DateTime expires) {
+            this.entries = entries;
+            this.expires = expires;
+        }
+
+        public ImmutableMap<String, String> getEntries() {
+            return entries;
+        }
+
+        public DateTime getExpires() {
+            return expires;
+        }
+    }
+
+    private final Signer signer;
+
+    public BinarySessionCookieCodec(Signer signer) {
+        this.signer = signer;
+    }
+
+    public String encode(Map<String, String> entries, DateTime expires) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(VERSION);
+        writeVarint(out, expires.getMillis() / 1000);
+        writeVarint(out, entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            int index = KEYS_DICTIONARY.indexOf(entry.getKey());
+            writeVarint(out, index + 1);
+            if (index == -1) {
+                writeString(out, entry.getKey());
+            }
+            writeString(out, entry.getValue());
+        }
+
+        String payload = BASE64URL.encode(out.toByteArray());
+        return payload + "." + signer.sign(payload);
+    }
+
+    /**
+     * Decodes a cookie value, after having verified its signature.
+     *
+     * @param cookie the cookie value
+     * @return the decoded session, or absent if the cookie is not a valid binary session cookie or its signature
+     * doesn't match.
+     */
+    public Optional<DecodedSession> decode(String cookie) {
+        int separator = cookie.indexOf('.');
+        if (separator == -1) {
+            return Optional.absent();
+        }
+        String payload = cookie.substring(0, separator);
+        if (!signer.verify(payload, cookie.substring(separator + 1))) {
+            return Optional.absent();
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(BASE64URL.decode(payload));
+            if (in.get() != VERSION) {
+                return Optional.absent();
+            }
+            DateTime expires = new DateTime(readVarint(in) * 1000);
+            long count = readVarint(in);
+            ImmutableMap.Builder<String, String> entries = ImmutableMap.builder();
+            for (long i = 0; i < count; i++) {
+                long index = readVarint(in);
+                String key;
+                if (index == 0) {
+                    key = readString(in);
+                } else if (index <= KEYS_DICTIONARY.size()) {
+                    key = KEYS_DICTIONARY.get((int) index - 1);
+                } else {
+                    return Optional.absent();
+                }
+                entries.put(key, readString(in));
+            }
+            if (in.hasRemaining()) {
+                return Optional.absent();
+            }
+            return Optional.of(new DecodedSession(entries.build(), expires));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            // invalid base64, varint, or duplicate keys
+            return Optional.absent();
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String s) {
+        byte[] bytes = s.getBytes(Charsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        long length = readVarint(in);
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String s = new String(in.array(), in.position(), (int) length, Charsets.UTF_8);
+        in.position(in.position() + (int) length);
+        return s;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+}
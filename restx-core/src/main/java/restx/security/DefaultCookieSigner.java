@@ -28,6 +28,6 @@ public class DefaultCookieSigner implements Signer {
 
 	@Override
 	public boolean verify(String cookie, String signedCookie) {
-		return sign(cookie).equals(signedCookie);
+		return Crypto.constantTimeEquals(sign(cookie), signedCookie);
 	}
 }
@@ -4,30 +4,81 @@ import com.google.common.base.Optional;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import restx.common.ConfigElement;
+import restx.common.MorePeriods;
+import restx.common.RestxConfig;
+import restx.common.StdRestxConfig;
+import restx.common.metrics.api.Gauge;
+import restx.common.metrics.api.MetricRegistry;
+import restx.common.metrics.dummy.DummyMetricRegistry;
 import restx.security.RestxSession.Definition.CachedEntry;
 import restx.security.RestxSession.Definition.Entry;
 import restx.security.RestxSession.Definition.EntryCacheManager;
 
+import java.util.Locale;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A restx session entry cache manager based on guava cache.
  *
- * You can override the cache settings by overriding the getCacheBuilder() method.
+ * The cache of each entry is configured with the following settings, where key is the entry key (eg principal),
+ * falling back to the settings without key, and then to the default value:
+ * <ul>
+ *     <li>restx.sessions.entries.[key.]maxSize: the maximum number of values kept in memory, 1000 by default</li>
+ *     <li>restx.sessions.entries.[key.]expireAfterWrite: the duration after which values are discarded and loaded
+ *     again on next access, such as "1h" (see MorePeriods), none by default</li>
+ *     <li>restx.sessions.entries.[key.]refreshAfterWrite: the duration after which values are reloaded on next access,
+ *     none by default</li>
+ * </ul>
+ *
+ * Refreshes are done asynchronously on a dedicated pool of restx.sessions.entries.refreshThreads daemon threads (2 by
+ * default): the stale value is still served while it is reloaded. Note that a value which can't be reloaded anymore
+ * (eg a deleted user) is kept until it expires, so refreshAfterWrite should be used with expireAfterWrite.
+ *
+ * Hits, misses, evictions and average load time of each entry cache are reported in the metric registry, under the
+ * "&lt;SESSION_ENTRIES&gt; [key]" prefix.
+ *
+ * You can also override the cache settings by overriding the getCacheBuilder() method.
  *
  * Note that Guava Cache is not distributed, so be very careful with cache invalidation
  * when using this cache.
  *
  * This is the default EntryCacheManager, see SecurityModule which provides one.
  */
-public class GuavaEntryCacheManager implements EntryCacheManager {
+public class GuavaEntryCacheManager implements EntryCacheManager, AutoCloseable {
+    private static final String SETTINGS_PREFIX = "restx.sessions.entries.";
+
+    private final RestxConfig config;
+    private final MetricRegistry metrics;
+    private ExecutorService refreshExecutor;
+
+    public GuavaEntryCacheManager() {
+        this(StdRestxConfig.of(ImmutableList.<ConfigElement>of()), new DummyMetricRegistry());
+    }
+
+    public GuavaEntryCacheManager(RestxConfig config, MetricRegistry metrics) {
+        this.config = config;
+        this.metrics = metrics;
+    }
+
     @Override
     public <T> CachedEntry<T> getCachedEntry(Entry<T> entry) {
         return new GuavaCacheSessionDefinitionEntry<T>(entry.getKey(), getLoadingCacheFor(entry));
     }
 
     protected <T> LoadingCache<String, T> getLoadingCacheFor(final Entry<T> entry) {
-        return getCacheBuilder(entry).build(getCacheLoaderFor(entry));
+        CacheLoader<String, T> loader = getCacheLoaderFor(entry);
+        if (getDurationSetting(entry, "refreshAfterWrite").isPresent()) {
+            loader = CacheLoader.asyncReloading(loader, getRefreshExecutor());
+        }
+        LoadingCache<String, T> loadingCache = getCacheBuilder(entry).recordStats().build(loader);
+        registerMetrics(entry, loadingCache);
+        return loadingCache;
     }
 
     protected <T> CacheLoader<String, T> getCacheLoaderFor(final Entry<T> entry) {
@@ -40,7 +91,89 @@ public class GuavaEntryCacheManager implements EntryCacheManager {
     }
 
     protected <T> CacheBuilder<Object, Object> getCacheBuilder(Entry<T> entry) {
-        return CacheBuilder.newBuilder().maximumSize(1000);
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .maximumSize(getSetting(entry, "maxSize").or(1000));
+        Optional<Long> expireAfterWrite = getDurationSetting(entry, "expireAfterWrite");
+        if (expireAfterWrite.isPresent()) {
+            builder.expireAfterWrite(expireAfterWrite.get(), TimeUnit.MILLISECONDS);
+        }
+        Optional<Long> refreshAfterWrite = getDurationSetting(entry, "refreshAfterWrite");
+        if (refreshAfterWrite.isPresent()) {
+            builder.refreshAfterWrite(refreshAfterWrite.get(), TimeUnit.MILLISECONDS);
+        }
+        return builder;
+    }
+
+    protected <T> void registerMetrics(Entry<T> entry, final LoadingCache<String, T> loadingCache) {
+        String prefix = "<SESSION_ENTRIES> " + entry.getKey() + " ";
+        metrics.gauge(prefix + "hits", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return loadingCache.stats().hitCount();
+            }
+        });
+        metrics.gauge(prefix + "misses", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return loadingCache.stats().missCount();
+            }
+        });
+        metrics.gauge(prefix + "hitRate", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return loadingCache.stats().hitRate();
+            }
+        });
+        metrics.gauge(prefix + "evictions", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return loadingCache.stats().evictionCount();
+            }
+        });
+        metrics.gauge(prefix + "averageLoadMs", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return loadingCache.stats().averageLoadPenalty() / 1000000d;
+            }
+        });
+        metrics.gauge(prefix + "size", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return loadingCache.size();
+            }
+        });
+    }
+
+    protected synchronized ExecutorService getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            refreshExecutor = Executors.newFixedThreadPool(
+                    config.getInt(SETTINGS_PREFIX + "refreshThreads").or(2),
+                    new ThreadFactoryBuilder().setNameFormat("restx-session-entries-refresh-%d").setDaemon(true).build());
+        }
+        return refreshExecutor;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdown();
+            refreshExecutor = null;
+        }
+    }
+
+    private Optional<Integer> getSetting(Entry<?> entry, String name) {
+        return config.getInt(SETTINGS_PREFIX + entry.getKey() + "." + name)
+                .or(config.getInt(SETTINGS_PREFIX + name));
+    }
+
+    private Optional<Long> getDurationSetting(Entry<?> entry, String name) {
+        Optional<String> duration = config.getString(SETTINGS_PREFIX + entry.getKey() + "." + name)
+                .or(config.getString(SETTINGS_PREFIX + name));
+        if (!duration.isPresent() || duration.get().trim().isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(MorePeriods.parsePeriod(duration.get().trim(), Locale.ENGLISH)
+                .toStandardDuration().getMillis());
     }
 
     /**
@@ -3,23 +3,35 @@ package restx.security;
 import com.google.common.base.Optional;
 import restx.factory.Component;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Provides a set of useful permissions, including the OPEN permission which is the only one that can allow access
  * to a resource without being authenticated.
+ *
+ * Permissions are meant to be built once and checked many times (generated routers keep them in fields): roles are
+ * parsed when the permission is built, and checking a permission on roles without {param} placeholders doesn't
+ * allocate.
  */
 @Component
 public class PermissionFactory {
     private static final Pattern ROLE_PARAM_INTERPOLATOR_REGEX = Pattern.compile("\\{(.+?)\\}");
 
+    private final ConcurrentMap<String, RoleTemplate> roleTemplates = new ConcurrentHashMap<>();
+
     private static final Permission OPEN = new Permission() {
+        private final Optional<Permission> matched = Optional.<Permission>of(this);
+
         @Override
         public Optional<? extends Permission> has(RestxPrincipal principal, Map<String, String> roleInterpolationMap) {
-            return Optional.of(this);
+            return matched;
         }
 
         @Override
@@ -28,9 +40,11 @@ public class PermissionFactory {
         }
     };
     private static final Permission IS_AUTHENTICATED = new Permission() {
+        private final Optional<Permission> matched = Optional.<Permission>of(this);
+
         @Override
         public Optional<? extends Permission> has(RestxPrincipal principal, Map<String, String> roleInterpolationMap) {
-            return Optional.of(this);
+            return matched;
         }
 
         @Override
@@ -66,18 +80,20 @@ public class PermissionFactory {
      * @param role the role to check
      */
     public Permission hasRole(final String role) {
+        final boolean literal = roleTemplate(role).isLiteral();
         return new Permission() {
             public final String TO_STRING = "HAS_ROLE[" + role + "]";
+            private final Optional<Permission> matched = Optional.<Permission>of(this);
 
             @Override
             public Optional<? extends Permission> has(RestxPrincipal principal, Map<String, String> roleInterpolationMap) {
                 if(principal.getPrincipalRoles().contains("*")) {
-                    return Optional.of(this);
+                    return matched;
                 }
 
-                String interpolatedRole = interpolateRole(role, roleInterpolationMap);
+                String interpolatedRole = literal ? role : interpolateRole(role, roleInterpolationMap);
                 if(principal.getPrincipalRoles().contains(interpolatedRole)) {
-                    return Optional.of(this);
+                    return matched;
                 }
 
                 return Optional.absent();
@@ -90,19 +106,23 @@ public class PermissionFactory {
         };
     }
 
+    /**
+     * Replaces the {param} placeholders of a role, called when checking roles having placeholders.
+     *
+     * Override it to customize the interpolation, the default implementation reuses the parsed role.
+     */
     protected String interpolateRole(String role, Map<String, String> roleInterpolationMap) {
-        Matcher matcher = ROLE_PARAM_INTERPOLATOR_REGEX.matcher(role);
-        StringBuffer interpolatedRole = new StringBuffer();
-        while(matcher.find()){
-            String interpolationVarName = matcher.group(1);
-            if(!roleInterpolationMap.containsKey(interpolationVarName)) {
-                throw new IllegalArgumentException(String.format("Variable <%s> not found in role interpolation map <%s>",
-                        interpolationVarName, roleInterpolationMap.toString()));
-            }
-            matcher.appendReplacement(interpolatedRole, roleInterpolationMap.get(interpolationVarName));
+        return roleTemplate(role).interpolate(roleInterpolationMap);
+    }
+
+    private RoleTemplate roleTemplate(String role) {
+        // roles come from the code (eg @RolesAllowed), the number of templates is bounded
+        RoleTemplate roleTemplate = roleTemplates.get(role);
+        if (roleTemplate == null) {
+            roleTemplate = RoleTemplate.compile(role);
+            roleTemplates.putIfAbsent(role, roleTemplate);
         }
-        matcher.appendTail(interpolatedRole);
-        return interpolatedRole.toString();
+        return roleTemplate;
     }
 
     /**
@@ -134,6 +154,8 @@ public class PermissionFactory {
      */
     public Permission allOf(final Permission... permissions) {
         return new Permission() {
+            private final Optional<Permission> matched = Optional.<Permission>of(this);
+
             @Override
             public Optional<? extends Permission> has(RestxPrincipal principal, Map<String, String> roleInterpolationMap) {
                 for (Permission permission : permissions) {
@@ -143,7 +165,7 @@ public class PermissionFactory {
                     }
                 }
 
-                return Optional.of(this);
+                return matched;
             }
 
             @Override
@@ -152,4 +174,52 @@ public class PermissionFactory {
             }
         };
     }
+
+    /**
+     * A role parsed in literal parts and {param} placeholders, eg "CAN_EDIT_COMPANY_{companyId}".
+     */
+    private static class RoleTemplate {
+        static RoleTemplate compile(String role) {
+            Matcher matcher = ROLE_PARAM_INTERPOLATOR_REGEX.matcher(role);
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int end = 0;
+            while (matcher.find()) {
+                literals.add(role.substring(end, matcher.start()));
+                variables.add(matcher.group(1));
+                end = matcher.end();
+            }
+            literals.add(role.substring(end));
+            return new RoleTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+        }
+
+        // literals[i] is before variables[i], the last literal is after the last variable
+        private final String[] literals;
+        private final String[] variables;
+
+        private RoleTemplate(String[] literals, String[] variables) {
+            this.literals = literals;
+            this.variables = variables;
+        }
+
+        boolean isLiteral() {
+            return variables.length == 0;
+        }
+
+        String interpolate(Map<String, String> roleInterpolationMap) {
+            if (isLiteral()) {
+                return literals[0];
+            }
+            StringBuilder interpolatedRole = new StringBuilder();
+            for (int i = 0; i < variables.length; i++) {
+                String value = roleInterpolationMap.get(variables[i]);
+                if (value == null && !roleInterpolationMap.containsKey(variables[i])) {
+                    throw new IllegalArgumentException(String.format("Variable <%s> not found in role interpolation map <%s>",
+                            variables[i], roleInterpolationMap.toString()));
+                }
+                interpolatedRole.append(literals[i]).append(value);
+            }
+            return interpolatedRole.append(literals[variables.length]).toString();
+        }
+    }
 }
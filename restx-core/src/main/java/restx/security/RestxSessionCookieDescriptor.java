@@ -8,10 +8,27 @@ import static restx.http.HTTP.headerTokenCompatible;
  * @author fcamblor
  */
 public class RestxSessionCookieDescriptor {
+    /**
+     * How the session is written in cookies. Sessions are read whatever their encoding, so that the encoding can be
+     * changed without losing the sessions of the clients.
+     */
+    public static enum Encoding {
+        /**
+         * The session entries and expiration date as a JSON object in the session cookie, with its signature in the
+         * signature cookie.
+         */
+        JSON,
+        /**
+         * A compact binary encoding of the session, signed in a single cookie, see BinarySessionCookieCodec.
+         */
+        BINARY
+    }
+
     private String cookieName;
     private String cookieSignatureName;
     private String domain;
     private Boolean secure;
+    private Encoding encoding;
 
     public RestxSessionCookieDescriptor(String cookieName, String cookieSignatureName) {
         this(cookieName, cookieSignatureName, Optional.<String>absent(), Optional.<Boolean>absent());
@@ -19,10 +36,16 @@ public class RestxSessionCookieDescriptor {
 
     public RestxSessionCookieDescriptor(String cookieName, String cookieSignatureName,
                                         Optional<String> domain, Optional<Boolean> secure) {
+        this(cookieName, cookieSignatureName, domain, secure, Encoding.JSON);
+    }
+
+    public RestxSessionCookieDescriptor(String cookieName, String cookieSignatureName,
+                                        Optional<String> domain, Optional<Boolean> secure, Encoding encoding) {
         this.cookieName = headerTokenCompatible(cookieName, "_");
         this.cookieSignatureName = headerTokenCompatible(cookieSignatureName, "_");
         this.domain = domain.orNull();
         this.secure = secure.orNull();
+        this.encoding = encoding;
     }
 
     public String getCookieName() {
@@ -40,4 +63,8 @@ public class RestxSessionCookieDescriptor {
     public Optional<Boolean> getSecure() {
         return Optional.fromNullable(secure);
     }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
 }
@@ -16,6 +16,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Optional;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
@@ -31,13 +33,20 @@ import restx.RestxRouteFilter;
 import restx.RouteLifecycleListener;
 import restx.StdRestxRequestMatch;
 import restx.WebException;
+import restx.common.Crypto;
 import restx.factory.Component;
 import restx.factory.Name;
 import restx.http.HttpStatus;
 import restx.jackson.FrontObjectMapperFactory;
 
 /**
- * This filter is used to store and get a RestxSession in Cookies (one for data, one for signature).
+ * This filter is used to store and get a RestxSession in Cookies (one for data, one for signature), or in a single
+ * signed cookie with the binary encoding (see RestxSessionCookieDescriptor.Encoding). Cookies of both encodings are
+ * read, whatever the encoding used to write them.
+ *
+ * A client sends the same session cookie on each request: once its signature has been checked, the cookie is kept
+ * parsed in a bounded cache, so that following requests only need a lookup and a signature comparison.
+ * See restx.sessions.cookies.cacheSize.
  */
 @Component(priority = -200)
 public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler {
@@ -54,13 +63,16 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
     private final PermissionFactory permissionFactory;
     private final RestxSessionCookieDescriptor restxSessionCookieDescriptor;
     private final RestxSession emptySession;
+    private final Cache<String, VerifiedCookie> verifiedCookies;
+    private final BinarySessionCookieCodec binaryCodec;
 
 	public RestxSessionCookieFilter(
 			RestxSession.Definition sessionDefinition,
 			@Named(FrontObjectMapperFactory.MAPPER_NAME) ObjectMapper mapper,
 			@Named(COOKIE_SIGNER_NAME) Signer signer,
             PermissionFactory permissionFactory,
-			RestxSessionCookieDescriptor restxSessionCookieDescriptor) {
+			RestxSessionCookieDescriptor restxSessionCookieDescriptor,
+			SecurityModule.SecuritySettings securitySettings) {
 
 		this.sessionDefinition = sessionDefinition;
 		this.mapper = mapper;
@@ -69,6 +81,9 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
         this.restxSessionCookieDescriptor = restxSessionCookieDescriptor;
 		this.emptySession = new RestxSession(sessionDefinition, ImmutableMap.<String, String>of(),
 				Optional.<RestxPrincipal>absent(), Duration.ZERO);
+		this.binaryCodec = new BinarySessionCookieCodec(signer);
+		this.verifiedCookies = CacheBuilder.newBuilder()
+				.maximumSize(securitySettings.sessionCookiesCacheSize()).build();
 	}
 
     @Override
@@ -111,18 +126,18 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
             return emptySession;
         } else {
             String sig = req.getCookieValue(restxSessionCookieDescriptor.getCookieSignatureName()).or("");
-			if (!signer.verify(cookie, sig)) {
-				logger.warn("invalid restx session signature. session was: {}. Ignoring session cookie.", cookie);
+            Optional<VerifiedCookie> verifiedCookie = verify(cookie, sig);
+            if (!verifiedCookie.isPresent()) {
                 return emptySession;
             }
-            Map<String, String> entries = readEntries(cookie);
-            DateTime expires = DateTime.parse(entries.remove(EXPIRES));
+            DateTime expires = verifiedCookie.get().expires;
             if (expires.isBeforeNow()) {
+                verifiedCookies.invalidate(cookie);
                 return emptySession;
             }
 
             Duration expiration = req.isPersistentCookie(restxSessionCookieName) ? new Duration(DateTime.now(), expires) : Duration.ZERO;
-            ImmutableMap<String, String> valueidsByKey = ImmutableMap.copyOf(entries);
+            ImmutableMap<String, String> valueidsByKey = verifiedCookie.get().entries;
             String principalName = valueidsByKey.get(RestxPrincipal.SESSION_DEF_KEY);
             Optional<RestxPrincipal> principalOptional = RestxSession.getValue(
                     sessionDefinition, RestxPrincipal.class, RestxPrincipal.SESSION_DEF_KEY, principalName);
@@ -131,6 +146,7 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
                 Optional<String> su = req.getHeader("RestxSu");
                 if (su.isPresent() && !Strings.isNullOrEmpty(su.get())) {
                     try {
+                        Map<String, String> entries = Maps.newHashMap(valueidsByKey);
                         entries.putAll(readEntries(su.get()));
                         valueidsByKey = ImmutableMap.copyOf(entries);
                         principalName = valueidsByKey.get(RestxPrincipal.SESSION_DEF_KEY);
@@ -147,6 +163,36 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
         }
     }
 
+    private Optional<VerifiedCookie> verify(String cookie, String sig) throws IOException {
+        VerifiedCookie verifiedCookie = verifiedCookies.getIfPresent(cookie);
+        if (verifiedCookie != null && (verifiedCookie.signature == null
+                || Crypto.constantTimeEquals(verifiedCookie.signature, sig))) {
+            return Optional.of(verifiedCookie);
+        }
+
+        if (!cookie.startsWith("{")) {
+            // binary encoding, the signature is part of the cookie
+            Optional<BinarySessionCookieCodec.DecodedSession> decoded = binaryCodec.decode(cookie);
+            if (!decoded.isPresent()) {
+                logger.warn("invalid restx session cookie. session was: {}. Ignoring session cookie.", cookie);
+                return Optional.absent();
+            }
+            verifiedCookie = new VerifiedCookie(null, decoded.get().getEntries(), decoded.get().getExpires());
+            verifiedCookies.put(cookie, verifiedCookie);
+            return Optional.of(verifiedCookie);
+        }
+
+        if (!signer.verify(cookie, sig)) {
+            logger.warn("invalid restx session signature. session was: {}. Ignoring session cookie.", cookie);
+            return Optional.absent();
+        }
+        Map<String, String> entries = readEntries(cookie);
+        DateTime expires = DateTime.parse(entries.remove(EXPIRES));
+        verifiedCookie = new VerifiedCookie(sig, ImmutableMap.copyOf(entries), expires);
+        verifiedCookies.put(cookie, verifiedCookie);
+        return Optional.of(verifiedCookie);
+    }
+
     @SuppressWarnings("unchecked")
     protected Map<String, String> readEntries(String cookie) throws IOException {
         return mapper.readValue(cookie, Map.class);
@@ -162,6 +208,10 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
                 logger.debug("setting cookie: {} {}", cookie.getKey(), cookie.getValue());
                 resp.addCookie(cookie.getKey(), cookie.getValue(), restxSessionCookieDescriptor, session.getExpires());
             }
+            if (restxSessionCookieDescriptor.getEncoding() == RestxSessionCookieDescriptor.Encoding.BINARY) {
+                // the signature cookie of a session previously written in json is not used anymore
+                resp.clearCookie(restxSessionCookieDescriptor.getCookieSignatureName(), restxSessionCookieDescriptor);
+            }
         }
     }
 
@@ -170,6 +220,9 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
             ImmutableMap<String, String> sessionMap = session.valueidsByKeyMap();
             if (sessionMap.isEmpty()) {
                 return ImmutableMap.of();
+            } else if (restxSessionCookieDescriptor.getEncoding() == RestxSessionCookieDescriptor.Encoding.BINARY) {
+                return ImmutableMap.of(restxSessionCookieDescriptor.getCookieName(),
+                        binaryCodec.encode(sessionMap, DateTime.now().plusDays(30)));
             } else {
                 HashMap<String,String> map = Maps.newHashMap(sessionMap);
                 map.put(EXPIRES, DateTime.now().plusDays(30).toString());
@@ -185,4 +238,17 @@ public class RestxSessionCookieFilter implements RestxRouteFilter, RestxHandler
     public String toString() {
         return "RestxSessionCookieFilter";
     }
+
+    private static class VerifiedCookie {
+        // null for binary cookies, which embed their signature
+        private final String signature;
+        private final ImmutableMap<String, String> entries;
+        private final DateTime expires;
+
+        private VerifiedCookie(String signature, ImmutableMap<String, String> entries, DateTime expires) {
+            this.signature = signature;
+            this.entries = entries;
+            this.expires = expires;
+        }
+    }
 }
@@ -5,21 +5,36 @@ import restx.factory.Module;
 import restx.factory.Provides;
 
 import javax.inject.Named;
+import java.util.Locale;
 
 /**
  * @author fcamblor
  */
 @Module(priority = 1000)
 public class SecurityFactory {
+    /**
+     * Builds the cookie descriptor with the default (JSON) encoding.
+     */
+    public RestxSessionCookieDescriptor restxSessionCookieDescriptor(Optional<String> appName){
+        return restxSessionCookieDescriptor(appName, Optional.<String>absent());
+    }
+
     @Provides
-    public RestxSessionCookieDescriptor restxSessionCookieDescriptor(@Named("app.name") Optional<String> appName){
+    public RestxSessionCookieDescriptor restxSessionCookieDescriptor(
+            @Named("app.name") Optional<String> appName,
+            @Named("restx.sessions.cookies.encoding") Optional<String> encoding){
+        RestxSessionCookieDescriptor.Encoding cookiesEncoding = encoding.isPresent()
+                ? RestxSessionCookieDescriptor.Encoding.valueOf(encoding.get().toUpperCase(Locale.ENGLISH))
+                : RestxSessionCookieDescriptor.Encoding.JSON;
         if(appName.isPresent()){
             return new RestxSessionCookieDescriptor(
                     String.format("%s-%s", "RestxSession", appName.get()),
-                    String.format("%s-%s", "RestxSessionSignature", appName.get()));
+                    String.format("%s-%s", "RestxSessionSignature", appName.get()),
+                    Optional.<String>absent(), Optional.<Boolean>absent(), cookiesEncoding);
         } else {
             // Keeping backward compatibility when appName is not provided
-            return new RestxSessionCookieDescriptor("RestxSession", "RestxSessionSignature");
+            return new RestxSessionCookieDescriptor("RestxSession", "RestxSessionSignature",
+                    Optional.<String>absent(), Optional.<Boolean>absent(), cookiesEncoding);
         }
     }
 }
@@ -15,6 +15,7 @@ import restx.RestxRoute;
 import restx.StdRestxRequestMatch;
 import restx.WebException;
 import restx.common.RestxConfig;
+import restx.common.metrics.api.MetricRegistry;
 import restx.config.SettingsKey;
 import restx.factory.AutoStartable;
 import restx.factory.Module;
@@ -39,6 +40,10 @@ public class SecurityModule {
                 doc = "The maximum number of sessions data to keep in memory for statistics in the monitor view")
         int sessionsLimit();
 
+        @SettingsKey(key = "restx.sessions.cookies.cacheSize", defaultValue = "10000",
+                doc = "The maximum number of verified session cookies to keep in memory, to avoid checking their" +
+                        " signature and parsing them on each request. 0 disables the cache.")
+        int sessionCookiesCacheSize();
     }
 
     @Provides
@@ -72,12 +77,17 @@ public class SecurityModule {
             public int sessionsLimit() {
                 return config.getInt("restx.sessions.stats.limit").or(100);
             }
+
+            @Override
+            public int sessionCookiesCacheSize() {
+                return config.getInt("restx.sessions.cookies.cacheSize").or(10000);
+            }
         };
     }
 
     @Provides @Named(ENTRY_CACHE_MANAGER)
-    public EntryCacheManager guavaCacheManager() {
-        return new GuavaEntryCacheManager();
+    public EntryCacheManager guavaCacheManager(RestxConfig config, MetricRegistry metrics) {
+        return new GuavaEntryCacheManager(config, metrics);
     }
 
     @Provides(priority = 100000)
@@ -1,17 +1,20 @@
 package restx.security;
 
 import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Ordering;
 
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Date: 17/11/13
  * Time: 16:23
+ *
+ * Tracks the sessions data of the most recently seen clients, up to a limit: when it is reached, the least recently
+ * touched sessions are evicted.
  */
 public class Sessions {
     public static final class SessionData implements Comparable<SessionData> {
@@ -90,11 +93,21 @@ public class Sessions {
 
     }
 
-    private final ConcurrentMap<String, SessionData> sessions = Maps.newConcurrentMap();
-    private final int limit;
+    /**
+     * Below this limit, the sessions are kept in a single segment, so that the least recently used session is always
+     * the one evicted. Above, eviction is done per segment to limit contention, and is only approximately LRU.
+     */
+    private static final int EXACT_LRU_LIMIT = 1000;
+
+    // an access ordered, bounded concurrent map: evicting the least recently used session is O(1)
+    private final ConcurrentMap<String, SessionData> sessions;
 
     public Sessions(int limit) {
-        this.limit = limit;
+        this.sessions = CacheBuilder.newBuilder()
+                .maximumSize(limit)
+                .concurrencyLevel(limit < EXACT_LRU_LIMIT ? 1 : 4)
+                .<String, SessionData>build()
+                .asMap();
     }
 
     public Optional<SessionData> get(String key) {
@@ -105,48 +118,16 @@ public class Sessions {
         return ImmutableMap.copyOf(sessions);
     }
 
-    public SessionData touch(String key, ImmutableMap<String, String> metadata) {
-        boolean updated = false;
-        SessionData updatedSessionData;
-        do {
-            SessionData sessionData;
-            sessionData = sessions.get(key);
-            if (sessionData != null) {
-                updatedSessionData = sessionData.touch(metadata);
-            } else {
+    public SessionData touch(String key, final ImmutableMap<String, String> metadata) {
+        return sessions.compute(key, new BiFunction<String, SessionData, SessionData>() {
+            @Override
+            public SessionData apply(String key, SessionData sessionData) {
+                if (sessionData != null) {
+                    return sessionData.touch(metadata);
+                }
                 long access = System.currentTimeMillis();
-                updatedSessionData = new SessionData(key, access, access, System.nanoTime(), 1, metadata);
-            }
-
-            updated = sessions.put(key, updatedSessionData) == sessionData;
-        } while (!updated);
-
-        // take size under limit
-        // note that it may exceed the limit for a short time until the following code completes
-        int size = sessions.size();
-        int remainingChecks = (size - limit) * 3 + 100;
-        while (sessions.size() > limit) {
-            if (remainingChecks-- == 0) {
-                // we have tried too many times to remove exceeding elements.
-                // the possible cause is that oldest element is always updated between we find it and try to remove it
-                // this is very unlikely but it's better to fail than run into an infinite loop
-
-                throw new IllegalStateException(
-                        String.format(
-                                "didn't manage to limit the size of sessions data within a reasonnable (%d) number of attempts",
-                                (size - limit) * 3 + 100));
+                return new SessionData(key, access, access, System.nanoTime(), 1, metadata);
             }
-            SessionData oldest = Ordering.natural().leastOf(sessions.values(), 1).get(0);
-
-            // we check if we still need to remove an element, the sessions may have changed while we were
-            // looking for the oldest element
-            if (sessions.size() > limit) {
-                // we remove it only if it hasn't changed. If it changed the remove method of ConcurrentMap won't
-                // remove it, and we will go on with the while loop
-                sessions.remove(oldest.getKey(), oldest);
-            }
-        }
-
-        return updatedSessionData;
+        });
     }
 }
@@ -12,9 +12,11 @@ import restx.RestxRequest;
 import restx.WebException;
 import restx.factory.Component;
 
+import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A simple implementation of security manager which throws 401 WebException if
@@ -45,34 +47,65 @@ public class StdRestxSecurityManager implements RestxSecurityManager {
 
         Optional<? extends Permission> match = permission.has(principal.get(), createRoleInterpolationMapFrom(request, requestMatch));
         if (match.isPresent()) {
-            logger.debug("permission matched: request={} principal={} perm={}", request, principal.get(), match.get());
+            if (logger.isDebugEnabled()) {
+                logger.debug("permission matched: request={} principal={} perm={}", request, principal.get(), match.get());
+            }
             return;
         }
 
-        logger.debug("permission not matched: request={} principal={} permission={}",
-                request, principal.get(), permission);
+        if (logger.isDebugEnabled()) {
+            logger.debug("permission not matched: request={} principal={} permission={}",
+                    request, principal.get(), permission);
+        }
         throw new WebException(HttpStatus.FORBIDDEN);
     }
 
-    protected Map<String, String> createRoleInterpolationMapFrom(RestxRequest request, RestxRequestMatch match) {
-        Map<String, String> roleInterpolationMap = new HashMap<>();
-
-        if(request != null) {
-            // When we have more than 1 query param value for a given key, subjectively keeping only the first one
-            // I don't think these multi-values query params should be taken into consideration when interpolating roles
-            // but I don't want to remove it from interpolation map either "if values.size()>1"
-            roleInterpolationMap.putAll(Maps.transformValues(request.getQueryParams(), new Function<List<String>, String>(){
-                @Override
-                public String apply(List<String> input) {
-                    return Iterables.getFirst(input, null);
+    /**
+     * Returns the map used to interpolate roles with {param} placeholders: path params, and first value of query params.
+     *
+     * The returned map is a read only view over the request and its match, values are looked up only when a role
+     * needs them.
+     */
+    protected Map<String, String> createRoleInterpolationMapFrom(final RestxRequest request, final RestxRequestMatch match) {
+        return new AbstractMap<String, String>() {
+            @Override
+            public String get(Object key) {
+                if (match != null) {
+                    String pathParam = match.getPathParams().get(key);
+                    if (pathParam != null) {
+                        return pathParam;
+                    }
                 }
-            }));
-        }
+                if (request != null && key instanceof String) {
+                    // When we have more than 1 query param value for a given key, subjectively keeping only the first one
+                    return request.getQueryParam((String) key).orNull();
+                }
+                return null;
+            }
 
-        if(match != null) {
-            roleInterpolationMap.putAll(match.getPathParams());
-        }
+            @Override
+            public boolean containsKey(Object key) {
+                return (match != null && match.getPathParams().containsKey(key))
+                        || (request != null && request.getQueryParams().containsKey(key));
+            }
 
-        return roleInterpolationMap;
+            @Override
+            public Set<Entry<String, String>> entrySet() {
+                // only used when the whole map is needed, eg in error messages
+                Map<String, String> roleInterpolationMap = new HashMap<>();
+                if (request != null) {
+                    roleInterpolationMap.putAll(Maps.transformValues(request.getQueryParams(), new Function<List<String>, String>(){
+                        @Override
+                        public String apply(List<String> input) {
+                            return Iterables.getFirst(input, null);
+                        }
+                    }));
+                }
+                if (match != null) {
+                    roleInterpolationMap.putAll(match.getPathParams());
+                }
+                return roleInterpolationMap.entrySet();
+            }
+        };
     }
 }
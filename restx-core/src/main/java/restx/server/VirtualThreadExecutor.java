@@ -0,0 +1,114 @@
+package restx.server;
+
+import com.google.common.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An executor running each task in its own JDK virtual thread, with a bounded number of tasks running concurrently.
+ *
+ * Tasks exceeding the concurrency limit still get their virtual thread, but wait for a permit before being run.
+ * Long-running tasks, like servers connector loops, must be run with executeUnlimited() instead: they would hold
+ * their permit forever.
+ *
+ * Virtual threads are available since JDK 21 only: RESTX being compiled for Java 8, they are created by reflection,
+ * and create() returns absent when the runtime doesn't support them.
+ */
+public class VirtualThreadExecutor implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+    /**
+     * Creates a new executor, if virtual threads are supported by the runtime.
+     *
+     * @param threadNamePrefix the prefix of the created threads names
+     * @param maxConcurrency the maximum number of tasks running concurrently
+     * @return the executor, or absent if virtual threads are not supported.
+     */
+    public static Optional<VirtualThreadExecutor> create(String threadNamePrefix, int maxConcurrency) {
+        Optional<ThreadFactory> threadFactory = virtualThreadFactory(threadNamePrefix);
+        if (!threadFactory.isPresent()) {
+            return Optional.absent();
+        }
+        return Optional.of(new VirtualThreadExecutor(threadFactory.get(), maxConcurrency));
+    }
+
+    private static Optional<ThreadFactory> virtualThreadFactory(String threadNamePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return Optional.absent();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // virtual threads may be available as a preview feature only
+            logger.debug("virtual threads are not available: {}", e.toString());
+            return Optional.absent();
+        }
+    }
+
+    private final ThreadFactory threadFactory;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+
+    private VirtualThreadExecutor(ThreadFactory threadFactory, int maxConcurrency) {
+        this.threadFactory = threadFactory;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            }
+        }).start();
+    }
+
+    /**
+     * Runs a task in its own virtual thread, without counting it in the concurrency limit.
+     *
+     * @param task the task to run
+     */
+    public void executeUnlimited(Runnable task) {
+        threadFactory.newThread(task).start();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of tasks currently running
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return true if the maximum number of tasks running concurrently is reached
+     */
+    public boolean isSaturated() {
+        return permits.availablePermits() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadExecutor{" +
+                "maxConcurrency=" + maxConcurrency +
+                ", active=" + getActiveCount() +
+                '}';
+    }
+}
@@ -1,6 +1,11 @@
 package restx.server;
 
+import com.google.common.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import restx.HttpSettings;
 import restx.common.Version;
+import restx.factory.Factory;
 
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -9,6 +14,8 @@ import static restx.common.MoreFiles.checkFileExists;
 import static restx.common.MoreIO.checkCanOpenSocket;
 
 public abstract class WebServerBase implements WebServer {
+    private static final Logger logger = LoggerFactory.getLogger(WebServerBase.class);
+
     protected static final AtomicLong SERVER_ID = new AtomicLong();
 
     protected final int port;
@@ -102,6 +109,30 @@ public abstract class WebServerBase implements WebServer {
         return WebServers.getServerById(serverId).isPresent();
     }
 
+    /**
+     * Returns the executor to use to process requests, when virtual threads are enabled with the
+     * restx.http.virtualThreads setting and supported by the java runtime.
+     *
+     * Implementations should use their platform threads pool when absent.
+     *
+     * @return the virtual threads executor, or absent if requests must be processed on platform threads.
+     */
+    protected Optional<VirtualThreadExecutor> virtualThreadExecutor() {
+        HttpSettings httpSettings = Factory.getInstance().getComponent(HttpSettings.class);
+        if (!httpSettings.virtualThreads()) {
+            return Optional.absent();
+        }
+        Optional<VirtualThreadExecutor> executor = VirtualThreadExecutor.create(
+                serverId + "-", httpSettings.virtualThreadsMaxConcurrency());
+        if (executor.isPresent()) {
+            logger.info("{} processes requests on virtual threads: {}", serverId, executor.get());
+        } else {
+            logger.warn("virtual threads are not supported by current java runtime," +
+                    " {} processes requests on platform threads", serverId);
+        }
+        return executor;
+    }
+
     public abstract void await() throws InterruptedException;
     protected abstract void _start() throws Exception;
     protected abstract void _stop() throws Exception;
@@ -0,0 +1,136 @@
+package restx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import restx.http.ExpiresHeaderFilter;
+import restx.http.HttpStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FSRouterTest {
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RestxRoute route;
+    private File file;
+
+    @Before
+    public void mountFolder() throws Exception {
+        file = folder.newFile("data.txt");
+        Files.asCharSink(file, UTF_8).write(CONTENT);
+        route = FSRouter.mount(folder.getRoot().getAbsolutePath()).readonly().on("/files").getRoutes().get(0);
+    }
+
+    @Test
+    public void should_send_whole_file() throws Exception {
+        TestRestxResponse response = get(ImmutableMap.<String, String>of());
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeader("Accept-Ranges").get()).isEqualTo("bytes");
+        assertThat(response.getHeader("ETag").isPresent()).isTrue();
+        assertThat(response.content()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void should_send_requested_range() throws Exception {
+        TestRestxResponse response = get(ImmutableMap.of("Range", "bytes=2-5"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeader("Content-Range").get()).isEqualTo("bytes 2-5/20");
+        assertThat(response.content()).isEqualTo("2345");
+    }
+
+    @Test
+    public void should_send_suffix_range() throws Exception {
+        TestRestxResponse response = get(ImmutableMap.of("Range", "bytes=-3"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeader("Content-Range").get()).isEqualTo("bytes 17-19/20");
+        assertThat(response.content()).isEqualTo("hij");
+    }
+
+    @Test
+    public void should_send_multiple_ranges_as_multipart() throws Exception {
+        TestRestxResponse response = get(ImmutableMap.of("Range", "bytes=0-1,10-11"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeader("Content-Type").get()).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.content())
+                .contains("Content-Range: bytes 0-1/20\r\n\r\n01\r\n")
+                .contains("Content-Range: bytes 10-11/20\r\n\r\nab\r\n");
+    }
+
+    @Test
+    public void should_answer_416_on_unsatisfiable_range() throws Exception {
+        TestRestxResponse response = get(ImmutableMap.of("Range", "bytes=50-60"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeader("Content-Range").get()).isEqualTo("bytes */20");
+        assertThat(response.content()).isEmpty();
+    }
+
+    @Test
+    public void should_honor_range_when_if_range_date_matches() throws Exception {
+        TestRestxResponse response = get(ImmutableMap.of("Range", "bytes=2-5", "If-Range", lastModified()));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.content()).isEqualTo("2345");
+    }
+
+    @Test
+    public void should_send_whole_file_when_if_range_does_not_match() throws Exception {
+        String eTag = get(ImmutableMap.<String, String>of()).getHeader("ETag").get();
+
+        // the file etag is weak, If-Range uses strong comparison
+        TestRestxResponse weakETag = get(ImmutableMap.of("Range", "bytes=2-5", "If-Range", eTag));
+        TestRestxResponse otherDate = get(ImmutableMap.of("Range", "bytes=2-5",
+                "If-Range", "Thu, 22 May 2014 18:46:12 GMT"));
+
+        assertThat(weakETag.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(weakETag.content()).isEqualTo(CONTENT);
+        assertThat(otherDate.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(otherDate.content()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void should_answer_304_when_not_modified() throws Exception {
+        String eTag = get(ImmutableMap.<String, String>of()).getHeader("ETag").get();
+
+        TestRestxResponse byETag = get(ImmutableMap.of("If-None-Match", eTag));
+        TestRestxResponse byDate = get(ImmutableMap.of("If-Modified-Since", lastModified()));
+
+        assertThat(byETag.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(byETag.content()).isEmpty();
+        assertThat(byDate.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(byDate.content()).isEmpty();
+    }
+
+    private String lastModified() {
+        return ExpiresHeaderFilter.createRFC1123DateFormat(Locale.US).format(new Date(file.lastModified()));
+    }
+
+    private TestRestxResponse get(Map<String, String> headers) throws IOException {
+        RestxRequest request = StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath("/files/data.txt")
+                .setHeaders(ImmutableMap.copyOf(headers)).build();
+        RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.of(route.match(request).get()));
+        TestRestxResponse response = new TestRestxResponse();
+        context.nextHandlerMatch().handle(request, response, context);
+        return response;
+    }
+}
@@ -0,0 +1,102 @@
+package restx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import restx.http.HttpStatus;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourcesRouteTest {
+    private final ResourcesRoute route = new ResourcesRoute("test", "/web", "restx/resourcesroute");
+
+    @Test
+    public void should_serve_resource_with_validators_in_prod() throws Exception {
+        TestRestxResponse response = serve(RestxContext.Modes.PROD, "/web/hello.json", ImmutableMap.<String, String>of());
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(response.content()).isEqualTo("{\"message\":\"hello\"}\n");
+        assertThat(response.getHeader("ETag").isPresent()).isTrue();
+
+        TestRestxResponse notModified = serve(RestxContext.Modes.PROD, "/web/hello.json",
+                ImmutableMap.of("If-None-Match", response.getHeader("ETag").get()));
+        assertThat(notModified.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.content()).isEmpty();
+    }
+
+    @Test
+    public void should_serve_precompressed_resource() throws Exception {
+        for (String mode : new String[] {RestxContext.Modes.PROD, RestxContext.Modes.DEV}) {
+            TestRestxResponse response = serve(mode, "/web/app.js", ImmutableMap.of("Accept-Encoding", "gzip, deflate"));
+            assertThat(response.getHeader("Content-Encoding").orNull()).isEqualTo("gzip");
+
+            response = serve(mode, "/web/app.js", ImmutableMap.<String, String>of());
+            assertThat(response.getHeader("Content-Encoding").isPresent()).isFalse();
+            assertThat(response.content()).isEqualTo("var a = 1;\n");
+        }
+    }
+
+    @Test
+    public void should_vary_on_accept_encoding_when_precompressed_resource_exists() throws Exception {
+        for (String mode : new String[] {RestxContext.Modes.PROD, RestxContext.Modes.DEV}) {
+            TestRestxResponse identity = serve(mode, "/web/app.js", ImmutableMap.<String, String>of());
+            assertThat(identity.getHeader("Vary").orNull()).isEqualTo("Accept-Encoding");
+
+            TestRestxResponse notAccepted = serve(mode, "/web/app.js", ImmutableMap.of("Accept-Encoding", "br"));
+            assertThat(notAccepted.getHeader("Content-Encoding").isPresent()).isFalse();
+            assertThat(notAccepted.getHeader("Vary").orNull()).isEqualTo("Accept-Encoding");
+
+            TestRestxResponse withoutVariant = serve(mode, "/web/hello.json", ImmutableMap.<String, String>of());
+            assertThat(withoutVariant.getHeader("Vary").isPresent()).isFalse();
+        }
+    }
+
+    @Test
+    public void should_look_up_resources_once_in_prod() throws Exception {
+        final AtomicInteger lookups = new AtomicInteger();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new ClassLoader(classLoader) {
+            @Override
+            public URL getResource(String name) {
+                if (name.startsWith("restx/resourcesroute/")) {
+                    lookups.incrementAndGet();
+                }
+                return super.getResource(name);
+            }
+        });
+        try {
+            for (ImmutableMap<String, String> headers : ImmutableList.of(
+                    ImmutableMap.of("Accept-Encoding", "gzip"), ImmutableMap.<String, String>of())) {
+                serve(RestxContext.Modes.PROD, "/web/app.js", headers);
+                int firstLookups = lookups.get();
+
+                TestRestxResponse response = serve(RestxContext.Modes.PROD, "/web/app.js", headers);
+
+                assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+                assertThat(lookups.get()).isEqualTo(firstLookups);
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(classLoader);
+        }
+    }
+
+    @Test
+    public void should_not_find_missing_resource() throws Exception {
+        TestRestxResponse response = serve(RestxContext.Modes.PROD, "/web/missing.json", ImmutableMap.<String, String>of());
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private TestRestxResponse serve(String mode, String path, ImmutableMap<String, String> headers) throws Exception {
+        RestxRequest request = StdRequest.builder().setBaseUri("http://localhost:8080/api")
+                .setRestxPath(path).setHeaders(headers).build();
+        TestRestxResponse response = new TestRestxResponse();
+        route.match(request).get().handle(request, response,
+                new RestxContext(mode, RouteLifecycleListener.DEAF, ImmutableList.<RestxHandlerMatch>of()));
+        response.close();
+        return response;
+    }
+}
@@ -0,0 +1,46 @@
+package restx;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestxContextTest {
+    @Test
+    public void should_notify_listeners_in_order() throws Exception {
+        List<String> calls = new ArrayList<>();
+        RestxContext ctx = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.<RestxHandlerMatch>of());
+
+        assertThat(ctx.getLifecycleListener()).isSameAs(RouteLifecycleListener.DEAF);
+
+        RestxContext ctx1 = ctx.withListener(new RecordingListener("L1", calls));
+        RestxContext ctx2 = ctx1.withListener(new RecordingListener("L2", calls));
+        RestxContext ctx3 = ctx2.withListener(new RecordingListener("L3", calls));
+
+        ctx3.getLifecycleListener().onBeforeWriteContent(null, null);
+        assertThat(calls).containsExactly("L1", "L2", "L3");
+
+        calls.clear();
+        ctx1.getLifecycleListener().onBeforeWriteContent(null, null);
+        assertThat(calls).containsExactly("L1");
+    }
+
+    private static class RecordingListener extends AbstractRouteLifecycleListener {
+        private final String name;
+        private final List<String> calls;
+
+        private RecordingListener(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public void onBeforeWriteContent(RestxRequest req, RestxResponse resp) {
+            calls.add(name);
+        }
+    }
+}
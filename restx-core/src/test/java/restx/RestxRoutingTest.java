@@ -36,6 +36,83 @@ public class RestxRoutingTest {
                 .containsExactly("RF1", "F1", "RF2", "ROUTE");
     }
 
+    @Test
+    public void should_match_first_route_in_order() throws Exception {
+        StdRoute users = new TestRoute("users", "GET", "/users/{id}");
+        StdRoute me = new TestRoute("me", "GET", "/users/me");
+        StdRoute children = new TestRoute("children", "GET", "/users/{id}/children");
+        StdRoute all = new TestRoute("all", "GET", "/users/{path:.*}");
+        StdRoute post = new TestRoute("post", "POST", "/users/{id}");
+        RestxRouting routing = new RestxRouting(
+                ImmutableList.<NamedComponent<RestxFilter>>of(),
+                ImmutableList.<NamedComponent<RestxRouteFilter>>of(),
+                ImmutableList.<RestxRoute>of(users, me, children, all, post)
+        );
+
+        assertThat(matchedRoute(routing, "GET", "/users/me")).isSameAs(users);
+        assertThat(matchedRoute(routing, "GET", "/users/johndoe")).isSameAs(users);
+        assertThat(matchedRoute(routing, "GET", "/users/johndoe/children")).isSameAs(children);
+        assertThat(matchedRoute(routing, "GET", "/users/johndoe/friends")).isSameAs(all);
+        assertThat(matchedRoute(routing, "GET", "/users/")).isSameAs(all);
+        assertThat(matchedRoute(routing, "POST", "/users/johndoe")).isSameAs(post);
+        assertThat(routing.match(request("POST", "/users/johndoe/children")).isPresent()).isFalse();
+        assertThat(routing.match(request("DELETE", "/users/johndoe")).isPresent()).isFalse();
+        assertThat(routing.match(request("GET", "/users")).isPresent()).isFalse();
+
+        routing = new RestxRouting(
+                ImmutableList.<NamedComponent<RestxFilter>>of(),
+                ImmutableList.<NamedComponent<RestxRouteFilter>>of(),
+                ImmutableList.<RestxRoute>of(me, all, users)
+        );
+
+        assertThat(matchedRoute(routing, "GET", "/users/me")).isSameAs(me);
+        assertThat(matchedRoute(routing, "GET", "/users/johndoe")).isSameAs(all);
+    }
+
+    @Test
+    public void should_use_match_of_matcher_subclasses() throws Exception {
+        StdRoute admin = new StdRoute("admin", new StdRestxRequestMatcher("GET", "/users/{id}") {
+            @Override
+            public Optional<? extends RestxRequestMatch> match(String method, String path) {
+                return path.endsWith("/admin") ? super.match(method, path) : Optional.<RestxRequestMatch>absent();
+            }
+        }) {
+            @Override
+            public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
+            }
+        };
+        StdRoute users = new TestRoute("users", "GET", "/users/{id}");
+        RestxRouting routing = new RestxRouting(
+                ImmutableList.<NamedComponent<RestxFilter>>of(),
+                ImmutableList.<NamedComponent<RestxRouteFilter>>of(),
+                ImmutableList.<RestxRoute>of(admin, users)
+        );
+
+        assertThat(matchedRoute(routing, "GET", "/users/admin")).isSameAs(admin);
+        assertThat(matchedRoute(routing, "GET", "/users/johndoe")).isSameAs(users);
+    }
+
+    private static RestxRoute matchedRoute(RestxRouting routing, String method, String path) {
+        Optional<Match> m = routing.match(request(method, path));
+        assertThat(m.isPresent()).isTrue();
+        return (RestxRoute) m.get().getMatch().get().getHandler();
+    }
+
+    private static RestxRequest request(String method, String path) {
+        return StdRequest.builder()
+                .setHttpMethod(method).setRestxPath(path).setBaseUri("http://localhost/api").build();
+    }
+
+    private static class TestRoute extends StdRoute {
+        private TestRoute(String name, String method, String pathPattern) {
+            super(name, new StdRestxRequestMatcher(method, pathPattern));
+        }
+
+        @Override
+        public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
+        }
+    }
+
     private class TestFilter implements RestxFilter, RestxHandler {
         private final String name;
 
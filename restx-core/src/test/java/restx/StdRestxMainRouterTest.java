@@ -0,0 +1,102 @@
+package restx;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import restx.common.metrics.api.Timer;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+import restx.common.metrics.dummy.DummyTimer;
+import restx.factory.NamedComponent;
+import restx.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StdRestxMainRouterTest {
+    private static final StdRoute HELLO = new StdRoute("hello", new StdRestxRequestMatcher("GET", "/hello")) {
+        @Override
+        public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx) throws IOException {
+            resp.setContentType("text/plain");
+            resp.getWriter().print("hello");
+        }
+    };
+
+    @Test
+    public void should_route_matched_request() throws Exception {
+        TestRestxResponse response = route(RestxContext.Modes.PROD, "GET", "/hello");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(response.content()).startsWith("hello");
+    }
+
+    @Test
+    public void should_not_list_routes_on_not_found_in_prod() throws Exception {
+        TestRestxResponse response = route(RestxContext.Modes.PROD, "GET", "/missing");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.content().trim()).isEqualTo("no restx route found for GET /missing");
+    }
+
+    @Test
+    public void should_list_routes_on_not_found_in_dev() throws Exception {
+        StdRestxMainRouter router = router(RestxContext.Modes.DEV);
+
+        for (String method : new String[] {"GET", "POST"}) {
+            TestRestxResponse response = route(router, method, "/missing");
+
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(response.content())
+                    .startsWith("no restx route found for " + method + " /missing\n")
+                    .contains("routes:\n")
+                    .contains(HELLO.toString());
+        }
+    }
+
+    @Test
+    public void should_record_request_duration_on_route_timer() throws Exception {
+        final Map<String, Long> durations = new HashMap<>();
+        StdRestxMainRouter router = new StdRestxMainRouter(new DummyMetricRegistry() {
+            @Override
+            public Timer timer(final String name) {
+                return new DummyTimer(name) {
+                    @Override
+                    public void update(long duration, TimeUnit unit) {
+                        durations.put(name, unit.toNanos(duration));
+                    }
+                };
+            }
+        }, routing(), RestxContext.Modes.PROD);
+
+        route(router, "GET", "/hello");
+        route(router, "GET", "/missing");
+
+        assertThat(durations).hasSize(2);
+        assertThat(durations.get("<HTTP> GET /hello")).isGreaterThan(0L);
+        assertThat(durations.get("<HTTP> NOT_FOUND")).isGreaterThan(0L);
+    }
+
+    private static TestRestxResponse route(String mode, String method, String path) throws IOException {
+        return route(router(mode), method, path);
+    }
+
+    private static TestRestxResponse route(StdRestxMainRouter router, String method, String path) throws IOException {
+        TestRestxResponse response = new TestRestxResponse();
+        router.route(StdRequest.builder()
+                .setHttpMethod(method).setRestxPath(path).setBaseUri("http://localhost/api").build(), response);
+        return response;
+    }
+
+    private static StdRestxMainRouter router(String mode) {
+        return new StdRestxMainRouter(new DummyMetricRegistry(), routing(), mode);
+    }
+
+    private static RestxRouting routing() {
+        return new RestxRouting(
+                ImmutableList.<NamedComponent<RestxFilter>>of(),
+                ImmutableList.<NamedComponent<RestxRouteFilter>>of(),
+                ImmutableList.<RestxRoute>of(HELLO));
+    }
+}
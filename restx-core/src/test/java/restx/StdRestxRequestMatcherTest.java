@@ -146,4 +146,25 @@ public class StdRestxRequestMatcherTest {
         match = matcher.match("GET", "/user/johndoe/children/");
         assertThat(match.isPresent()).isFalse();
     }
+
+    @Test
+    public void should_matcher_be_segment_based_only_with_default_path_params() throws Exception {
+        assertThat(new StdRestxRequestMatcher("GET", "/user").isSegmentBased()).isTrue();
+        assertThat(new StdRestxRequestMatcher("GET", "/user/{name}/children/:child").isSegmentBased()).isTrue();
+        assertThat(new StdRestxRequestMatcher("GET", "/user/{name:.+}").isSegmentBased()).isFalse();
+        assertThat(new StdRestxRequestMatcher("GET", "/user/{name}.json").isSegmentBased()).isFalse();
+        assertThat(new StdRestxRequestMatcher("GET", "/user/id-{name}").isSegmentBased()).isFalse();
+    }
+
+    @Test
+    public void should_matcher_with_path_param_mixed_with_literal_match_not_match() throws Exception {
+        StdRestxRequestMatcher matcher = new StdRestxRequestMatcher("GET", "/user/id-{name}/details");
+
+        Optional<? extends RestxRequestMatch> match = matcher.match("GET", "/user/id-johndoe/details");
+        assertThat(match.isPresent()).isTrue();
+        assertThat(match.get().getPathParam("name")).isEqualTo("johndoe");
+
+        match = matcher.match("GET", "/user/johndoe/details");
+        assertThat(match.isPresent()).isFalse();
+    }
 }
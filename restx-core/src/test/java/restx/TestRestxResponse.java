@@ -0,0 +1,72 @@
+package restx;
+
+import org.joda.time.Duration;
+import restx.http.HttpStatus;
+import restx.security.RestxSessionCookieDescriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A RestxResponse keeping its content and cookies in memory, for tests.
+ */
+public class TestRestxResponse extends AbstractResponse<ByteArrayOutputStream> {
+    private final ByteArrayOutputStream content;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    public TestRestxResponse() {
+        this(new ByteArrayOutputStream());
+    }
+
+    private TestRestxResponse(ByteArrayOutputStream content) {
+        super(ByteArrayOutputStream.class, content);
+        this.content = content;
+    }
+
+    public byte[] bytes() {
+        return content.toByteArray();
+    }
+
+    public String content() {
+        return new String(content.toByteArray(), UTF_8);
+    }
+
+    public Map<String, String> cookies() {
+        return cookies;
+    }
+
+    @Override
+    protected void doSetHeader(String headerName, String header) {
+    }
+
+    @Override
+    protected void closeResponse() throws IOException {
+    }
+
+    @Override
+    protected OutputStream doGetOutputStream() throws IOException {
+        return content;
+    }
+
+    @Override
+    protected void doSetStatus(HttpStatus httpStatus) {
+    }
+
+    @Override
+    public RestxResponse addCookie(String cookie, String value, RestxSessionCookieDescriptor cookieDescriptor,
+                                   Duration expires) {
+        cookies.put(cookie, value);
+        return this;
+    }
+
+    @Override
+    public RestxResponse clearCookie(String cookie, RestxSessionCookieDescriptor cookieDescriptor) {
+        cookies.put(cookie, "");
+        return this;
+    }
+}
@@ -0,0 +1,83 @@
+package restx.http;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTest {
+    @Test
+    public void should_reject_requests_above_limit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void should_increase_limit_while_latency_is_stable() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 3);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_decrease_limit_when_latency_rises() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 1000);
+
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limit.getLimit()).isEqualTo(100);
+
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limit.getLimit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void should_keep_limit_consistent_under_concurrent_releases() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 10, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final AtomicInteger acquired = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 5000; j++) {
+                        if (limit.tryAcquire()) {
+                            acquired.incrementAndGet();
+                            limit.release(TimeUnit.MICROSECONDS.toNanos(j % 100 == 0 ? 5000 : 100));
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(acquired.get()).isGreaterThan(0);
+        assertThat(limit.getInFlight()).isEqualTo(0);
+        assertThat(limit.getLimit()).isBetween(10, 100);
+    }
+}
@@ -0,0 +1,41 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ByteRangeTest {
+    @Test
+    public void should_parse_single_and_multiple_ranges() throws Exception {
+        assertThat(ByteRange.parse("bytes=0-499", 1000).get()).containsExactly(new ByteRange(0, 499));
+        assertThat(ByteRange.parse("bytes=500-", 1000).get()).containsExactly(new ByteRange(500, 999));
+        assertThat(ByteRange.parse("bytes=-100", 1000).get()).containsExactly(new ByteRange(900, 999));
+        assertThat(ByteRange.parse("bytes=0-0, 900-2000, -5000", 1000).get())
+                .containsExactly(new ByteRange(0, 0), new ByteRange(900, 999), new ByteRange(0, 999));
+    }
+
+    @Test
+    public void should_return_empty_list_when_not_satisfiable() throws Exception {
+        assertThat(ByteRange.parse("bytes=1000-", 1000).get()).isEmpty();
+        assertThat(ByteRange.parse("bytes=-0", 1000).get()).isEmpty();
+        assertThat(ByteRange.parse("bytes=0-10", 0).get()).isEmpty();
+    }
+
+    @Test
+    public void should_ignore_invalid_ranges() throws Exception {
+        assertThat(ByteRange.parse("items=0-10", 1000)).isEqualTo(Optional.<List<ByteRange>>absent());
+        assertThat(ByteRange.parse("bytes=10-0", 1000)).isEqualTo(Optional.<List<ByteRange>>absent());
+        assertThat(ByteRange.parse("bytes=abc", 1000)).isEqualTo(Optional.<List<ByteRange>>absent());
+        assertThat(ByteRange.parse("bytes=", 1000)).isEqualTo(Optional.<List<ByteRange>>absent());
+        assertThat(ByteRange.parse("bytes=0-1,2-3,4-5,6-7,8-9,10-11,12-13,14-15,16-17,18-19,20-21,22-23,"
+                + "24-25,26-27,28-29,30-31,32-33", 1000)).isEqualTo(Optional.<List<ByteRange>>absent());
+    }
+
+    @Test
+    public void should_format_content_range() throws Exception {
+        assertThat(new ByteRange(0, 499).toContentRange(1234)).isEqualTo("bytes 0-499/1234");
+    }
+}
@@ -0,0 +1,213 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import restx.RestxContext;
+import restx.RestxLogLevel;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+import restx.RestxResponse;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.TestRestxResponse;
+import restx.WebException;
+import restx.annotations.ValidatedBy;
+import restx.description.OperationDescription;
+import restx.endpoint.Endpoint;
+import restx.entity.AbstractEntityResponseWriter;
+import restx.entity.StdEntityRoute;
+import restx.entity.VoidContentTypeModule;
+import restx.security.Permission;
+import restx.security.PermissionFactory;
+import restx.security.RestxSecurityManager;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class ConditionalRequestFilterTest {
+    private static final DateTime LAST_MODIFIED = new DateTime(2014, 5, 22, 18, 46, 12, 345, DateTimeZone.UTC);
+    private static final PermissionFactory PERMISSION_FACTORY = new PermissionFactory();
+    // no principal: only open routes are accessible
+    private static final RestxSecurityManager DENY_UNLESS_OPEN = new RestxSecurityManager() {
+        @Override
+        public void check(RestxRequest request, RestxRequestMatch match, Permission permission) {
+            if (!PERMISSION_FACTORY.isOpen(permission)) {
+                throw new WebException(HttpStatus.FORBIDDEN);
+            }
+        }
+    };
+
+    @Test
+    public void should_check_if_none_match() throws Exception {
+        ResourceValidator validator = ResourceValidator.eTag("\"v2\"");
+
+        assertThat(ConditionalRequestFilter.isNotModified(request("If-None-Match", "\"v2\""), validator)).isTrue();
+        assertThat(ConditionalRequestFilter.isNotModified(request("If-None-Match", "\"v1\", W/\"v2\""), validator)).isTrue();
+        assertThat(ConditionalRequestFilter.isNotModified(request("If-None-Match", "*"), validator)).isTrue();
+        assertThat(ConditionalRequestFilter.isNotModified(request("If-None-Match", "\"v1\""), validator)).isFalse();
+    }
+
+    @Test
+    public void should_check_if_modified_since() throws Exception {
+        ResourceValidator validator = ResourceValidator.lastModified(LAST_MODIFIED);
+
+        assertThat(ConditionalRequestFilter.isNotModified(
+                request("If-Modified-Since", "Thu, 22 May 2014 18:46:12 GMT"), validator)).isTrue();
+        assertThat(ConditionalRequestFilter.isNotModified(
+                request("If-Modified-Since", "Thu, 22 May 2014 18:46:11 GMT"), validator)).isFalse();
+        assertThat(ConditionalRequestFilter.isNotModified(
+                request("If-Modified-Since", "not a date"), validator)).isFalse();
+    }
+
+    @Test
+    public void should_ignore_if_modified_since_when_if_none_match_is_present() throws Exception {
+        ResourceValidator validator = new ResourceValidator(Optional.of("\"v2\""), Optional.of(LAST_MODIFIED));
+
+        assertThat(ConditionalRequestFilter.isNotModified(StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath("/cities/1")
+                .setHeaders(ImmutableMap.of(
+                        "If-None-Match", "\"v1\"",
+                        "If-Modified-Since", "Thu, 22 May 2014 18:46:12 GMT"))
+                .build(), validator)).isFalse();
+    }
+
+    @Test
+    public void should_answer_not_modified_without_calling_route() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.open());
+
+        TestRestxResponse response = handle(route, request("If-None-Match", "\"v2\""));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeader("ETag").get()).isEqualTo("\"v2\"");
+        assertThat(response.content()).isEmpty();
+        assertThat(route.called).isEqualTo(0);
+    }
+
+    @Test
+    public void should_call_route_and_write_validators_when_modified() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.open());
+
+        TestRestxResponse response = handle(route, request("If-None-Match", "\"v1\""));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeader("ETag").get()).isEqualTo("\"v2\"");
+        assertThat(response.content()).isEqualTo("city 1");
+        assertThat(route.called).isEqualTo(1);
+    }
+
+    @Test
+    public void should_call_route_when_validators_are_unknown() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.open());
+
+        TestRestxResponse response = handle(route, StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath("/cities/unknown")
+                .setHeaders(ImmutableMap.of("If-None-Match", "\"v2\"")).build());
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeader("ETag").isPresent()).isFalse();
+        assertThat(route.called).isEqualTo(1);
+    }
+
+    @Test
+    public void should_check_permission_before_answering_not_modified() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.hasRole("admin"));
+
+        try {
+            handle(route, request("If-None-Match", "\"v2\""));
+            fail("should raise a forbidden error");
+        } catch (WebException e) {
+            assertThat(e.getStatus()).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+        assertThat(route.called).isEqualTo(0);
+    }
+
+    @Test
+    public void should_fail_when_provider_is_not_a_component() throws Exception {
+        ConditionalRequestFilter filter = new ConditionalRequestFilter(
+                ImmutableList.<ResourceValidatorProvider>of(), DENY_UNLESS_OPEN);
+
+        try {
+            filter.match(new CountingRoute(PERMISSION_FACTORY.open()));
+            fail("should raise an error for the missing provider");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains(CityValidatorProvider.class.getName());
+        }
+    }
+
+    private static TestRestxResponse handle(CountingRoute route, RestxRequest request) throws IOException {
+        ConditionalRequestFilter filter = new ConditionalRequestFilter(
+                ImmutableList.<ResourceValidatorProvider>of(new CityValidatorProvider()), DENY_UNLESS_OPEN);
+        RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.of(filter.match(route).get(), route.match(request).get()));
+        TestRestxResponse response = new TestRestxResponse();
+        context.nextHandlerMatch().handle(request, response, context);
+        return response;
+    }
+
+    private static RestxRequest request(String header, String value) {
+        return StdRequest.builder().setBaseUri("http://localhost:8080/api").setRestxPath("/cities/1")
+                .setHeaders(ImmutableMap.of(header, value)).build();
+    }
+
+    private static class CityValidatorProvider implements ResourceValidatorProvider {
+        @Override
+        public Optional<ResourceValidator> provideValidatorFor(RestxRequestMatch match, RestxRequest req) {
+            return "1".equals(match.getPathParam("id"))
+                    ? Optional.of(ResourceValidator.eTag("\"v2\"")) : Optional.<ResourceValidator>absent();
+        }
+    }
+
+    private static class CountingRoute extends StdEntityRoute<Void, String> {
+        private final Permission permission;
+        private int called;
+
+        private CountingRoute(Permission permission) {
+            super("CityResource#findCity", VoidContentTypeModule.VoidEntityRequestBodyReader.INSTANCE,
+                    new AbstractEntityResponseWriter<String>(String.class, "text/plain") {
+                        @Override
+                        protected void write(String value, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                                throws IOException {
+                            resp.getWriter().print(value);
+                            resp.getWriter().flush();
+                        }
+                    },
+                    Endpoint.of("GET", "/cities/{id}"), HttpStatus.OK, RestxLogLevel.DEFAULT,
+                    PERMISSION_FACTORY, null);
+            this.permission = permission;
+        }
+
+        @Override
+        protected Optional<String> doRoute(RestxRequest restxRequest, RestxResponse restxResponse,
+                                           RestxRequestMatch match, Void body) {
+            called++;
+            return Optional.of("city " + match.getPathParam("id"));
+        }
+
+        @Override
+        public Optional<Permission> getPermission() {
+            return Optional.of(permission);
+        }
+
+        @Override
+        protected void describeOperation(OperationDescription operation) {
+            operation.annotations = ImmutableList.of(new ValidatedBy() {
+                @Override
+                public Class<? extends ResourceValidatorProvider> value() {
+                    return CityValidatorProvider.class;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return ValidatedBy.class;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package restx.http;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GzipDeflaterOutputStreamTest {
+    @Test
+    public void should_write_gzip_with_reused_deflater() throws Exception {
+        DeflaterPool pool = new DeflaterPool(6, 1);
+        String content = Strings.repeat("{\"name\":\"restx\"}", 1000);
+
+        for (int i = 0; i < 3; i++) {
+            Deflater deflater = pool.borrow();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            GzipDeflaterOutputStream out = new GzipDeflaterOutputStream(bytes, deflater);
+            out.write(content.getBytes(UTF_8));
+            out.close();
+            pool.release(deflater);
+
+            assertThat(bytes.size()).isLessThan(content.length() / 10);
+            assertThat(new String(ByteStreams.toByteArray(
+                    new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))), UTF_8)).isEqualTo(content);
+        }
+    }
+}
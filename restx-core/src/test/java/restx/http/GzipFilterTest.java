@@ -0,0 +1,115 @@
+package restx.http;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+import restx.HttpSettingsConfig;
+import restx.RestxContext;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+import restx.RestxResponse;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.StdRestxRequestMatcher;
+import restx.StdRoute;
+import restx.TestRestxResponse;
+import restx.common.ConfigElement;
+import restx.common.StdRestxConfig;
+import restx.common.metrics.api.Gauge;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GzipFilterTest {
+    private static final String LARGE_CONTENT = Strings.repeat("{\"name\":\"restx\"}", 100);
+
+    private final Map<String, Gauge<?>> gauges = new HashMap<>();
+    private final GzipFilter filter = new GzipFilter(
+            new HttpSettingsConfig(StdRestxConfig.of(ImmutableList.of(
+                    ConfigElement.of("restx.http.gzip.minSize", "100"),
+                    ConfigElement.of("restx.http.gzip.deflaterPoolSize", "2")))),
+            new DummyMetricRegistry() {
+                @Override
+                public <T> void gauge(String name, Gauge<T> gauge) {
+                    gauges.put(name, gauge);
+                }
+            });
+
+    @Test
+    public void should_compress_content_above_min_size() throws Exception {
+        TestRestxResponse response = handle(LARGE_CONTENT, null);
+
+        assertThat(response.getHeader("Content-Encoding").get()).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary").get()).isEqualTo("Accept-Encoding");
+        assertThat(response.bytes().length).isLessThan(LARGE_CONTENT.length());
+        assertThat(gunzip(response.bytes())).isEqualTo(LARGE_CONTENT);
+    }
+
+    @Test
+    public void should_send_content_below_min_size_as_is() throws Exception {
+        TestRestxResponse response = handle("{\"name\":\"restx\"}", null);
+
+        assertThat(response.getHeader("Content-Encoding").isPresent()).isFalse();
+        assertThat(response.content()).isEqualTo("{\"name\":\"restx\"}");
+    }
+
+    @Test
+    public void should_not_compress_content_already_encoded() throws Exception {
+        TestRestxResponse response = handle(LARGE_CONTENT, "br");
+
+        assertThat(response.getHeader("Content-Encoding").get()).isEqualTo("br");
+        assertThat(response.content()).isEqualTo(LARGE_CONTENT);
+    }
+
+    @Test
+    public void should_return_deflaters_to_pool() throws Exception {
+        Gauge<?> idleDeflaters = gauges.get("<GZIP> idle deflaters");
+        assertThat(idleDeflaters.getValue()).isEqualTo(0);
+
+        handle(LARGE_CONTENT, null);
+        assertThat(idleDeflaters.getValue()).isEqualTo(1);
+
+        // the idle deflater is reused
+        TestRestxResponse response = handle(LARGE_CONTENT, null);
+        assertThat(idleDeflaters.getValue()).isEqualTo(1);
+        assertThat(gunzip(response.bytes())).isEqualTo(LARGE_CONTENT);
+    }
+
+    private TestRestxResponse handle(final String content, final String contentEncoding) throws IOException {
+        RestxRequest request = StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath("/cities")
+                .setHeaders(ImmutableMap.of("Accept-Encoding", "gzip, deflate")).build();
+        StdRoute route = new StdRoute("cities", new StdRestxRequestMatcher("GET", "/cities")) {
+            @Override
+            public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                    throws IOException {
+                if (contentEncoding != null) {
+                    resp.setHeader("Content-Encoding", contentEncoding);
+                }
+                // as entity writers do, the output stream is closed once the content is written
+                try (OutputStream out = resp.getOutputStream()) {
+                    out.write(content.getBytes(UTF_8));
+                }
+            }
+        };
+        RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.of(filter.match(request).get(), route.match(request).get()));
+        TestRestxResponse response = new TestRestxResponse();
+        context.nextHandlerMatch().handle(request, response, context);
+        return response;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        return new String(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes))), UTF_8);
+    }
+}
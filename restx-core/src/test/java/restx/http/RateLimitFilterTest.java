@@ -0,0 +1,238 @@
+package restx.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import restx.HttpSettingsConfig;
+import restx.RestxContext;
+import restx.RestxHandler;
+import restx.RestxHandlerMatch;
+import restx.RestxLogLevel;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+import restx.RestxResponse;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.StdRestxRequestMatch;
+import restx.TestRestxResponse;
+import restx.annotations.RateLimited;
+import restx.common.ConfigElement;
+import restx.common.StdRestxConfig;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+import restx.description.OperationDescription;
+import restx.endpoint.Endpoint;
+import restx.entity.AbstractEntityResponseWriter;
+import restx.entity.StdEntityRoute;
+import restx.entity.VoidContentTypeModule;
+import restx.security.DefaultCookieSigner;
+import restx.security.DefaultSessionDefinitionEntry;
+import restx.security.GuavaEntryCacheManager;
+import restx.security.PermissionFactory;
+import restx.security.RestxPrincipal;
+import restx.security.RestxSession;
+import restx.security.RestxSessionCookieDescriptor;
+import restx.security.RestxSessionCookieFilter;
+import restx.security.SecurityModule;
+import restx.security.SignatureKey;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+    private static final PermissionFactory PERMISSION_FACTORY = new PermissionFactory();
+
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new HttpSettingsConfig(StdRestxConfig.of(ImmutableList.<ConfigElement>of())),
+            new DummyMetricRegistry() {
+                @Override
+                public Counter counter(String name) {
+                    Counter counter = super.counter(name);
+                    counters.put(name, counter);
+                    return counter;
+                }
+            });
+    private final RestxSessionCookieFilter sessionFilter = sessionFilter();
+
+    @Test
+    public void should_reject_requests_above_limit_with_retry_after() throws Exception {
+        // a token every 100 seconds, the bucket is not refilled during the test
+        CountingRoute route = new CountingRoute(0.01, 2);
+
+        TestRestxResponse first = handle(route, "1.2.3.4", Optional.<String>absent());
+        TestRestxResponse second = handle(route, "1.2.3.4", Optional.<String>absent());
+        TestRestxResponse rejected = handle(route, "1.2.3.4", Optional.<String>absent());
+
+        assertThat(route.called).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeader("X-RateLimit-Limit")).isEqualTo(Optional.of("2"));
+        assertThat(first.getHeader("X-RateLimit-Remaining")).isEqualTo(Optional.of("1"));
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getHeader("X-RateLimit-Remaining")).isEqualTo(Optional.of("0"));
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getHeader("X-RateLimit-Limit")).isEqualTo(Optional.of("2"));
+        assertThat(rejected.getHeader("X-RateLimit-Remaining")).isEqualTo(Optional.of("0"));
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo(Optional.of("100"));
+        assertThat(counters.get("<RATE_LIMIT> rejected GET /cities/{id}").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_limit_each_client_address() throws Exception {
+        CountingRoute route = new CountingRoute(0.01, 1);
+
+        handle(route, "1.2.3.4", Optional.<String>absent());
+        TestRestxResponse rejected = handle(route, "1.2.3.4", Optional.<String>absent());
+        TestRestxResponse other = handle(route, "5.6.7.8", Optional.<String>absent());
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(other.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(route.called).isEqualTo(2);
+    }
+
+    @Test
+    public void should_limit_authenticated_clients_by_principal() throws Exception {
+        CountingRoute route = new CountingRoute(0.01, 1);
+
+        handle(route, "1.2.3.4", Optional.of("alice"));
+        // the principal is limited whatever the client address
+        TestRestxResponse sameUser = handle(route, "5.6.7.8", Optional.of("alice"));
+        // other clients from the same address are not
+        TestRestxResponse otherUser = handle(route, "1.2.3.4", Optional.of("bob"));
+        TestRestxResponse anonymous = handle(route, "1.2.3.4", Optional.<String>absent());
+
+        assertThat(sameUser.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(otherUser.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(anonymous.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(route.called).isEqualTo(3);
+    }
+
+    private TestRestxResponse handle(CountingRoute route, String clientAddress, Optional<String> principalName)
+            throws IOException {
+        RestxRequest request = StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath("/cities/1")
+                .setHeaders(ImmutableMap.of("X-Forwarded-For", clientAddress))
+                .build();
+        List<RestxHandlerMatch> matches = new ArrayList<>();
+        if (principalName.isPresent()) {
+            matches.add(sessionFilter.match(route).get());
+            matches.add(authenticateAs(principalName.get()));
+        }
+        matches.add(filter.match(route).get());
+        matches.add(route.match(request).get());
+        RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.copyOf(matches));
+        TestRestxResponse response = new TestRestxResponse();
+        context.nextHandlerMatch().handle(request, response, context);
+        return response;
+    }
+
+    private static RestxHandlerMatch authenticateAs(final String principalName) {
+        return new RestxHandlerMatch(new StdRestxRequestMatch("/*"), new RestxHandler() {
+            @Override
+            public void handle(RestxRequestMatch match, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                    throws IOException {
+                RestxSession.current().authenticateAs(principal(principalName));
+                ctx.nextHandlerMatch().handle(req, resp, ctx);
+            }
+        });
+    }
+
+    private static RestxSessionCookieFilter sessionFilter() {
+        return new RestxSessionCookieFilter(
+                new RestxSession.Definition(new GuavaEntryCacheManager(),
+                        ImmutableList.<RestxSession.Definition.Entry>of(new DefaultSessionDefinitionEntry<>(
+                                RestxPrincipal.class, RestxPrincipal.SESSION_DEF_KEY,
+                                new Function<String, Optional<? extends RestxPrincipal>>() {
+                                    @Override
+                                    public Optional<? extends RestxPrincipal> apply(String name) {
+                                        return Optional.of(principal(name));
+                                    }
+                                }))),
+                new ObjectMapper(),
+                new DefaultCookieSigner(Optional.<SignatureKey>absent()),
+                PERMISSION_FACTORY,
+                new RestxSessionCookieDescriptor("RestxSession", "RestxSessionSignature"),
+                new SecurityModule.SecuritySettings() {
+                    @Override
+                    public int sessionsLimit() {
+                        return 100;
+                    }
+
+                    @Override
+                    public int sessionCookiesCacheSize() {
+                        return 100;
+                    }
+                });
+    }
+
+    private static RestxPrincipal principal(final String name) {
+        return new RestxPrincipal() {
+            @Override
+            public ImmutableSet<String> getPrincipalRoles() {
+                return ImmutableSet.of();
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static class CountingRoute extends StdEntityRoute<Void, String> {
+        private final RateLimited rateLimited;
+        private int called;
+
+        private CountingRoute(final double perSecond, final int burst) {
+            super("CityResource#findCity", VoidContentTypeModule.VoidEntityRequestBodyReader.INSTANCE,
+                    new AbstractEntityResponseWriter<String>(String.class, "text/plain") {
+                        @Override
+                        protected void write(String value, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                                throws IOException {
+                            resp.getWriter().print(value);
+                        }
+                    },
+                    Endpoint.of("GET", "/cities/{id}"), HttpStatus.OK, RestxLogLevel.DEFAULT,
+                    PERMISSION_FACTORY, null);
+            this.rateLimited = new RateLimited() {
+                @Override
+                public double perSecond() {
+                    return perSecond;
+                }
+
+                @Override
+                public int burst() {
+                    return burst;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return RateLimited.class;
+                }
+            };
+        }
+
+        @Override
+        protected Optional<String> doRoute(RestxRequest restxRequest, RestxResponse restxResponse,
+                                           RestxRequestMatch match, Void body) {
+            called++;
+            return Optional.of("city " + match.getPathParam("id"));
+        }
+
+        @Override
+        protected void describeOperation(OperationDescription operation) {
+            operation.annotations = ImmutableList.of(rateLimited);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package restx.http;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import restx.HttpSettingsConfig;
+import restx.RestxContext;
+import restx.RestxLogLevel;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+import restx.RestxResponse;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.TestRestxResponse;
+import restx.WebException;
+import restx.annotations.Cached;
+import restx.common.ConfigElement;
+import restx.common.StdRestxConfig;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+import restx.description.OperationDescription;
+import restx.endpoint.Endpoint;
+import restx.entity.AbstractEntityResponseWriter;
+import restx.entity.StdEntityRoute;
+import restx.entity.VoidContentTypeModule;
+import restx.security.Permission;
+import restx.security.PermissionFactory;
+import restx.security.RestxSecurityManager;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class ResponseCacheFilterTest {
+    private static final PermissionFactory PERMISSION_FACTORY = new PermissionFactory();
+
+    private final Map<String, Counter> counters = new HashMap<>();
+    private boolean denied;
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(
+            new HttpSettingsConfig(StdRestxConfig.of(ImmutableList.<ConfigElement>of())),
+            new DummyMetricRegistry() {
+                @Override
+                public Counter counter(String name) {
+                    Counter counter = super.counter(name);
+                    counters.put(name, counter);
+                    return counter;
+                }
+            },
+            new RestxSecurityManager() {
+                @Override
+                public void check(RestxRequest request, RestxRequestMatch match, Permission permission) {
+                    if (denied && !PERMISSION_FACTORY.isOpen(permission)) {
+                        throw new WebException(HttpStatus.FORBIDDEN);
+                    }
+                }
+            },
+            PERMISSION_FACTORY);
+
+    @Test
+    public void should_call_route_on_miss_and_serve_hit_from_cache() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.open(), "1h", false);
+
+        TestRestxResponse miss = handle(route, "/cities/1");
+        TestRestxResponse hit = handle(route, "/cities/1");
+
+        assertThat(route.called).isEqualTo(1);
+        assertThat(miss.content()).isEqualTo("city 1");
+        assertThat(hit.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(hit.getHeader("Content-Type").get()).startsWith("text/plain");
+        assertThat(hit.content()).isEqualTo("city 1");
+        assertThat(counters.get("<RESPONSE_CACHE> misses").getCount()).isEqualTo(1);
+        assertThat(counters.get("<RESPONSE_CACHE> hits").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_cache_per_path_params() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.open(), "1h", false);
+
+        handle(route, "/cities/1");
+        TestRestxResponse other = handle(route, "/cities/2");
+
+        assertThat(route.called).isEqualTo(2);
+        assertThat(other.content()).isEqualTo("city 2");
+    }
+
+    @Test
+    public void should_call_route_again_once_expired() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.open(), "0s", false);
+
+        handle(route, "/cities/1");
+        TestRestxResponse expired = handle(route, "/cities/1");
+
+        assertThat(route.called).isEqualTo(2);
+        assertThat(expired.content()).isEqualTo("city 1");
+        assertThat(counters.get("<RESPONSE_CACHE> misses").getCount()).isEqualTo(2);
+        assertThat(counters.get("<RESPONSE_CACHE> hits").getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_check_permission_before_serving_hit() throws Exception {
+        CountingRoute route = new CountingRoute(PERMISSION_FACTORY.hasRole("admin"), "1h", true);
+        handle(route, "/cities/1");
+
+        denied = true;
+        try {
+            handle(route, "/cities/1");
+            fail("should raise a forbidden error");
+        } catch (WebException e) {
+            assertThat(e.getStatus()).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+        assertThat(counters.get("<RESPONSE_CACHE> hits").getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_refuse_non_open_route_not_cached_per_principal() throws Exception {
+        try {
+            filter.match(new CountingRoute(PERMISSION_FACTORY.isAuthenticated(), "1h", false));
+            fail("should refuse to cache a route which is not open without perPrincipal");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains("perPrincipal");
+        }
+    }
+
+    private TestRestxResponse handle(CountingRoute route, String path) throws IOException {
+        RestxRequest request = StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath(path).build();
+        RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.of(filter.match(route).get(), route.match(request).get()));
+        TestRestxResponse response = new TestRestxResponse();
+        context.nextHandlerMatch().handle(request, response, context);
+        return response;
+    }
+
+    private static class CountingRoute extends StdEntityRoute<Void, String> {
+        private final Permission permission;
+        private final Cached cached;
+        private int called;
+
+        private CountingRoute(Permission permission, final String ttl, final boolean perPrincipal) {
+            super("CityResource#findCity", VoidContentTypeModule.VoidEntityRequestBodyReader.INSTANCE,
+                    new AbstractEntityResponseWriter<String>(String.class, "text/plain") {
+                        @Override
+                        protected void write(String value, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                                throws IOException {
+                            // not flushed, the filter must record what is still buffered in the writer
+                            resp.getWriter().print(value);
+                        }
+                    },
+                    Endpoint.of("GET", "/cities/{id}"), HttpStatus.OK, RestxLogLevel.DEFAULT,
+                    PERMISSION_FACTORY, null);
+            this.permission = permission;
+            this.cached = new Cached() {
+                @Override
+                public String ttl() {
+                    return ttl;
+                }
+
+                @Override
+                public String[] varyBy() {
+                    return new String[0];
+                }
+
+                @Override
+                public boolean perPrincipal() {
+                    return perPrincipal;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return Cached.class;
+                }
+            };
+        }
+
+        @Override
+        protected Optional<String> doRoute(RestxRequest restxRequest, RestxResponse restxResponse,
+                                           RestxRequestMatch match, Void body) {
+            called++;
+            return Optional.of("city " + match.getPathParam("id"));
+        }
+
+        @Override
+        public Optional<Permission> getPermission() {
+            return Optional.of(permission);
+        }
+
+        @Override
+        protected void describeOperation(OperationDescription operation) {
+            operation.annotations = ImmutableList.of(cached);
+        }
+    }
+}
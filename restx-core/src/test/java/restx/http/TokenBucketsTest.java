@@ -0,0 +1,52 @@
+package restx.http;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketsTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void should_allow_burst_then_refill_at_rate() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(2, 3, 100);
+
+        assertThat(buckets.tryAcquire("a", 0)).isEqualTo(2);
+        assertThat(buckets.tryAcquire("a", 0)).isEqualTo(1);
+        assertThat(buckets.tryAcquire("a", 0)).isEqualTo(0);
+        assertThat(buckets.tryAcquire("a", 0)).isEqualTo(-1);
+        assertThat(buckets.tryAcquire("b", 0)).isEqualTo(2);
+
+        assertThat(buckets.tryAcquire("a", SECOND / 2)).isEqualTo(0);
+        assertThat(buckets.tryAcquire("a", SECOND / 2)).isEqualTo(-1);
+        assertThat(buckets.tryAcquire("a", 10 * SECOND)).isEqualTo(2);
+    }
+
+    @Test
+    public void should_evict_idle_buckets() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            buckets.tryAcquire("client" + i, 0);
+        }
+        assertThat(buckets.size()).isEqualTo(100);
+
+        for (int i = 0; i < 100; i++) {
+            buckets.tryAcquire("other" + i, 10 * SECOND);
+        }
+        // idle buckets are evicted lazily, from the stripes where new buckets are added
+        assertThat(buckets.size()).isLessThan(200);
+    }
+
+    @Test
+    public void should_bound_number_of_buckets() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 640);
+
+        for (int i = 0; i < 10000; i++) {
+            buckets.tryAcquire("client" + i, 0);
+        }
+        assertThat(buckets.size()).isLessThanOrEqualTo(640);
+    }
+}
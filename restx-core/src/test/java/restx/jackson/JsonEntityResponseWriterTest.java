@@ -0,0 +1,58 @@
+package restx.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import restx.RestxContext;
+import restx.RestxHandlerMatch;
+import restx.RestxRequest;
+import restx.RestxResponse;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.TestRestxResponse;
+import restx.http.HttpStatus;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonEntityResponseWriterTest {
+    private final RestxRequest request = StdRequest.builder()
+            .setBaseUri("http://localhost/api").setRestxPath("/values").build();
+    private final RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+            ImmutableList.<RestxHandlerMatch>of());
+
+    @Test
+    public void should_write_utf8_json_to_output_stream() throws Exception {
+        TestRestxResponse response = new TestRestxResponse();
+
+        write(ImmutableMap.of("name", "café"), response);
+
+        assertThat(response.getHeader("Content-Type").get()).startsWith("application/json");
+        // jackson closes its target, so no trailing new line is added when the response is closed
+        assertThat(response.content()).isEqualTo("{\"name\":\"café\"}");
+    }
+
+    @Test
+    public void should_write_json_to_writer_with_other_charsets() throws Exception {
+        TestRestxResponse response = new TestRestxResponse() {
+            @Override
+            public RestxResponse setContentType(String contentType) {
+                return super.setContentType(contentType + "; charset=ISO-8859-1");
+            }
+        };
+
+        write(ImmutableMap.of("name", "café"), response);
+
+        assertThat(response.getHeader("Content-Type").get()).endsWith("charset=ISO-8859-1");
+        assertThat(new String(response.bytes(), Charsets.ISO_8859_1)).isEqualTo("{\"name\":\"café\"}");
+    }
+
+    private void write(Map<String, String> value, TestRestxResponse response) throws Exception {
+        JsonEntityResponseWriter.<Map<String, String>>using(Map.class, new ObjectMapper().writer())
+                .sendResponse(HttpStatus.OK, value, request, response, context);
+        response.close();
+    }
+}
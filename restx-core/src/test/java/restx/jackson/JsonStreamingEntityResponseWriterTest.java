@@ -0,0 +1,166 @@
+package restx.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import restx.RestxContext;
+import restx.RestxHandlerMatch;
+import restx.RestxRequest;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.TestRestxResponse;
+import restx.common.Types;
+import restx.http.HttpStatus;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class JsonStreamingEntityResponseWriterTest {
+    private final RestxRequest request = StdRequest.builder()
+            .setBaseUri("http://localhost/api").setRestxPath("/values").build();
+    private final RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+            ImmutableList.<RestxHandlerMatch>of());
+
+    @Test
+    public void should_write_iterable_as_json_array() throws Exception {
+        TestRestxResponse response = write(Types.newParameterizedType(Iterable.class, String.class),
+                ImmutableList.of("a", "b"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeader("Content-Type").get()).startsWith("application/json");
+        assertThat(response.content()).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    public void should_write_iterator_as_json_array() throws Exception {
+        TestRestxResponse response = write(Types.newParameterizedType(Iterator.class, String.class),
+                ImmutableList.of("a", "b").iterator());
+
+        assertThat(response.content()).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    public void should_write_empty_iterator_as_empty_json_array() throws Exception {
+        TestRestxResponse response = write(Types.newParameterizedType(Iterator.class, String.class),
+                ImmutableList.<String>of().iterator());
+
+        assertThat(response.content()).isEqualTo("[]");
+    }
+
+    @Test
+    public void should_write_stream_and_close_it() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = Stream.of(1, 2, 3).onClose(new Runnable() {
+            @Override
+            public void run() {
+                closed.set(true);
+            }
+        });
+
+        TestRestxResponse response = write(Types.newParameterizedType(Stream.class, Integer.class), stream);
+
+        assertThat(response.content()).isEqualTo("[1,2,3]");
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void should_close_closeable_iterator() throws Exception {
+        CloseableIterator iterator = new CloseableIterator(3, -1);
+
+        TestRestxResponse response = write(Types.newParameterizedType(Iterator.class, Integer.class), iterator);
+
+        assertThat(response.content()).isEqualTo("[0,1,2]");
+        assertThat(iterator.closed).isTrue();
+    }
+
+    @Test
+    public void should_flush_periodically() throws Exception {
+        final List<String> flushedContents = new ArrayList<>();
+        TestRestxResponse response = new TestRestxResponse() {
+            @Override
+            protected OutputStream doGetOutputStream() throws IOException {
+                return new FilterOutputStream(super.doGetOutputStream()) {
+                    @Override
+                    public void flush() throws IOException {
+                        super.flush();
+                        flushedContents.add(content());
+                    }
+                };
+            }
+        };
+
+        write(Types.newParameterizedType(Stream.class, Integer.class),
+                IntStream.range(0, 250).boxed(), response);
+
+        assertThat(flushedContents.size()).isGreaterThanOrEqualTo(2);
+        assertThat(flushedContents.get(0)).startsWith("[0,1,").endsWith(",98,99");
+        assertThat(flushedContents.get(1)).endsWith(",198,199");
+        assertThat(response.content()).endsWith(",248,249]");
+    }
+
+    @Test
+    public void should_not_end_array_and_close_source_on_failure() throws Exception {
+        CloseableIterator iterator = new CloseableIterator(5, 2);
+        TestRestxResponse response = new TestRestxResponse();
+
+        try {
+            write(Types.newParameterizedType(Iterator.class, Integer.class), iterator, response);
+            fail("should raise the iteration failure");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessage("failure at 2");
+        }
+
+        response.getOutputStream().flush();
+        assertThat(response.content()).doesNotContain("]");
+        assertThat(iterator.closed).isTrue();
+    }
+
+    private TestRestxResponse write(Type type, Object value) throws IOException {
+        TestRestxResponse response = new TestRestxResponse();
+        write(type, value, response);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(Type type, Object value, TestRestxResponse response) throws IOException {
+        JsonStreamingEntityResponseWriter.using(type, new ObjectMapper().writer())
+                .sendResponse(HttpStatus.OK, value, request, response, context);
+    }
+
+    private static class CloseableIterator extends AbstractIterator<Integer> implements AutoCloseable {
+        private final int size;
+        private final int failureIndex;
+        private int next;
+        private boolean closed;
+
+        private CloseableIterator(int size, int failureIndex) {
+            this.size = size;
+            this.failureIndex = failureIndex;
+        }
+
+        @Override
+        protected Integer computeNext() {
+            if (next == failureIndex) {
+                throw new IllegalStateException("failure at " + next);
+            }
+            return next < size ? next++ : endOfData();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package restx.security;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinarySessionCookieCodecTest {
+    private final BinarySessionCookieCodec codec = new BinarySessionCookieCodec(
+            new DefaultCookieSigner(Optional.<SignatureKey>absent()));
+
+    @Test
+    public void should_encode_and_decode_session() throws Exception {
+        DateTime expires = new DateTime(1700000000000L);
+        ImmutableMap<String, String> entries = ImmutableMap.of("principal", "admin", "lang", "fr-FR", "name", "Zoë");
+
+        String cookie = codec.encode(entries, expires);
+        Optional<BinarySessionCookieCodec.DecodedSession> decoded = codec.decode(cookie);
+
+        assertThat(cookie).matches("[A-Za-z0-9_-]+\\.[A-Za-z0-9+/=]+");
+        assertThat(decoded.isPresent()).isTrue();
+        assertThat(decoded.get().getEntries()).isEqualTo(entries);
+        assertThat(decoded.get().getExpires()).isEqualTo(expires);
+    }
+
+    @Test
+    public void should_be_smaller_than_json() throws Exception {
+        String cookie = codec.encode(ImmutableMap.of("principal", "admin"), DateTime.now());
+
+        assertThat(cookie.length()).isLessThan(
+                "{\"principal\":\"admin\",\"_expires\":\"2023-11-14T23:13:20.000+01:00\"}".length());
+    }
+
+    @Test
+    public void should_reject_tampered_or_invalid_cookies() throws Exception {
+        String cookie = codec.encode(ImmutableMap.of("principal", "user1"), DateTime.now());
+        String payload = cookie.substring(0, cookie.indexOf('.'));
+        String signature = cookie.substring(cookie.indexOf('.') + 1);
+        String tampered = codec.encode(ImmutableMap.of("principal", "admin"), DateTime.now());
+
+        assertThat(codec.decode(tampered.substring(0, tampered.indexOf('.')) + "." + signature).isPresent()).isFalse();
+        assertThat(codec.decode(payload).isPresent()).isFalse();
+        assertThat(codec.decode("not a cookie").isPresent()).isFalse();
+        assertThat(codec.decode("%%%." + new DefaultCookieSigner(Optional.<SignatureKey>absent()).sign("%%%"))
+                .isPresent()).isFalse();
+    }
+}
@@ -0,0 +1,83 @@
+package restx.security;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.Test;
+import restx.common.ConfigElement;
+import restx.common.StdRestxConfig;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+import restx.security.RestxSession.Definition.CachedEntry;
+import restx.security.RestxSession.Definition.Entry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GuavaEntryCacheManagerTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile CountDownLatch loadsAllowed = new CountDownLatch(0);
+    private final Entry<String> entry = new DefaultSessionDefinitionEntry<>(String.class, "principal",
+            new Function<String, Optional<? extends String>>() {
+                @Override
+                public Optional<? extends String> apply(String id) {
+                    Uninterruptibles.awaitUninterruptibly(loadsAllowed);
+                    return Optional.of(id + "-" + loads.incrementAndGet());
+                }
+            });
+
+    @Test
+    public void should_limit_size_per_entry_key() throws Exception {
+        GuavaEntryCacheManager cacheManager = new GuavaEntryCacheManager(StdRestxConfig.of(ImmutableList.of(
+                ConfigElement.of("restx.sessions.entries.maxSize", "1000"),
+                ConfigElement.of("restx.sessions.entries.principal.maxSize", "1"))),
+                new DummyMetricRegistry());
+        CachedEntry<String> cachedEntry = cacheManager.getCachedEntry(entry);
+
+        assertThat(cachedEntry.getValueForId("a").get()).isEqualTo("a-1");
+        assertThat(cachedEntry.getValueForId("a").get()).isEqualTo("a-1");
+        assertThat(cachedEntry.getValueForId("b").get()).isEqualTo("b-2");
+        assertThat(cachedEntry.getValueForId("a").get()).isEqualTo("a-3");
+    }
+
+    @Test
+    public void should_serve_stale_value_while_refreshing() throws Exception {
+        final AtomicLong nanos = new AtomicLong();
+        GuavaEntryCacheManager cacheManager = new GuavaEntryCacheManager(StdRestxConfig.of(ImmutableList.of(
+                ConfigElement.of("restx.sessions.entries.refreshAfterWrite", "1m"))),
+                new DummyMetricRegistry()) {
+            @Override
+            protected <T> CacheBuilder<Object, Object> getCacheBuilder(Entry<T> entry) {
+                return super.getCacheBuilder(entry).ticker(new Ticker() {
+                    @Override
+                    public long read() {
+                        return nanos.get();
+                    }
+                });
+            }
+        };
+        try {
+            CachedEntry<String> cachedEntry = cacheManager.getCachedEntry(entry);
+
+            assertThat(cachedEntry.getValueForId("a").get()).isEqualTo("a-1");
+            loadsAllowed = new CountDownLatch(1);
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+            assertThat(cachedEntry.getValueForId("a").get()).isEqualTo("a-1");
+            loadsAllowed.countDown();
+
+            long timeout = System.currentTimeMillis() + 5000;
+            while (!cachedEntry.getValueForId("a").get().equals("a-2") && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            assertThat(cachedEntry.getValueForId("a").get()).isEqualTo("a-2");
+        } finally {
+            cacheManager.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package restx.security;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class PermissionFactoryTest {
+    private final PermissionFactory permissionFactory = new PermissionFactory();
+
+    @Test
+    public void should_check_literal_roles() throws Exception {
+        Permission permission = permissionFactory.anyOf(
+                permissionFactory.hasRole("admin"), permissionFactory.hasRole("hello"));
+
+        assertThat(permission.has(principal("hello"), ImmutableMap.<String, String>of()).isPresent()).isTrue();
+        assertThat(permission.has(principal("other"), ImmutableMap.<String, String>of()).isPresent()).isFalse();
+        assertThat(permission.has(principal("*"), ImmutableMap.<String, String>of()).isPresent()).isTrue();
+    }
+
+    @Test
+    public void should_interpolate_roles() throws Exception {
+        Permission permission = permissionFactory.hasRole("CAN_EDIT_{companyId}_SUB_{subCompanyId}");
+
+        assertThat(permission.has(principal("CAN_EDIT_1234_SUB_5678"),
+                ImmutableMap.of("companyId", "1234", "subCompanyId", "5678")).isPresent()).isTrue();
+        assertThat(permission.has(principal("CAN_EDIT_1234_SUB_5678"),
+                ImmutableMap.of("companyId", "1234", "subCompanyId", "0000")).isPresent()).isFalse();
+        assertThat(permissionFactory.interpolateRole("{a}-{b}$", ImmutableMap.of("a", "1", "b", "2")))
+                .isEqualTo("1-2$");
+    }
+
+    @Test
+    public void should_interpolate_roles_with_overridden_interpolation() throws Exception {
+        PermissionFactory upperCasePermissionFactory = new PermissionFactory() {
+            @Override
+            protected String interpolateRole(String role, Map<String, String> roleInterpolationMap) {
+                return super.interpolateRole(role, roleInterpolationMap).toUpperCase(Locale.ENGLISH);
+            }
+        };
+
+        Permission permission = upperCasePermissionFactory.hasRole("CAN_EDIT_{companyId}");
+
+        assertThat(permission.has(principal("CAN_EDIT_ACME"), ImmutableMap.of("companyId", "acme")).isPresent())
+                .isTrue();
+        assertThat(upperCasePermissionFactory.hasRole("admin")
+                .has(principal("admin"), ImmutableMap.<String, String>of()).isPresent()).isTrue();
+    }
+
+    @Test
+    public void should_fail_on_missing_interpolation_variable() throws Exception {
+        try {
+            permissionFactory.hasRole("CAN_EDIT_{companyId}")
+                    .has(principal("CAN_EDIT_1234"), ImmutableMap.of("other", "1234"));
+            fail("should raise exception when variable is missing");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("<companyId>").contains("other=1234");
+        }
+    }
+
+    private static RestxPrincipal principal(final String... roles) {
+        return new RestxPrincipal() {
+            @Override
+            public ImmutableSet<String> getPrincipalRoles() {
+                return ImmutableSet.copyOf(roles);
+            }
+
+            @Override
+            public String getName() {
+                return "user";
+            }
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package restx.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Test;
+import restx.RestxAsyncSupport;
+import restx.RestxContext;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+import restx.RestxRequestWrapper;
+import restx.RestxResponse;
+import restx.RestxRoute;
+import restx.RouteLifecycleListener;
+import restx.StdRequest;
+import restx.TestRestxResponse;
+import restx.endpoint.Endpoint;
+import restx.entity.AbstractEntityResponseWriter;
+import restx.entity.MatchedEntityRoute;
+import restx.entity.StdEntityRoute;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RestxSessionCookieFilterTest {
+    private static final RestxSessionCookieDescriptor JSON_COOKIES = new RestxSessionCookieDescriptor(
+            "RestxSession", "RestxSessionSignature");
+    private static final RestxSessionCookieDescriptor BINARY_COOKIES = new RestxSessionCookieDescriptor(
+            "RestxSession", "RestxSessionSignature", Optional.<String>absent(), Optional.<Boolean>absent(),
+            RestxSessionCookieDescriptor.Encoding.BINARY);
+
+    @Test
+    public void should_write_and_read_json_session() throws Exception {
+        RestxSessionCookieFilter filter = filter(JSON_COOKIES);
+        TestRestxResponse response = new TestRestxResponse();
+
+        handle(filter, route(DEFINE_LANG), request(ImmutableMap.<String, String>of()), response);
+
+        String cookie = response.cookies().get("RestxSession");
+        assertThat(cookie).startsWith("{").contains("\"lang\":\"fr\"");
+        assertThat(response.cookies().get("RestxSessionSignature")).isNotEmpty();
+        assertThat(filter.buildContextFromRequest(request(response.cookies())).get(String.class, "lang"))
+                .isEqualTo(Optional.of("fr"));
+    }
+
+    @Test
+    public void should_write_and_read_binary_session_in_a_single_cookie() throws Exception {
+        RestxSessionCookieFilter filter = filter(BINARY_COOKIES);
+        TestRestxResponse response = new TestRestxResponse();
+
+        handle(filter, route(DEFINE_LANG), request(ImmutableMap.<String, String>of()), response);
+
+        String cookie = response.cookies().get("RestxSession");
+        assertThat(cookie).isNotEmpty().doesNotContain("{");
+        // the signature cookie of a previous json session is cleared
+        assertThat(response.cookies().get("RestxSessionSignature")).isEmpty();
+        assertThat(filter.buildContextFromRequest(request(ImmutableMap.of("RestxSession", cookie)))
+                .get(String.class, "lang")).isEqualTo(Optional.of("fr"));
+    }
+
+    @Test
+    public void should_read_json_session_when_writing_binary_sessions() throws Exception {
+        TestRestxResponse jsonResponse = new TestRestxResponse();
+        handle(filter(JSON_COOKIES), route(DEFINE_LANG), request(ImmutableMap.<String, String>of()), jsonResponse);
+
+        RestxSession session = filter(BINARY_COOKIES).buildContextFromRequest(request(jsonResponse.cookies()));
+
+        assertThat(session.get(String.class, "lang")).isEqualTo(Optional.of("fr"));
+    }
+
+    @Test
+    public void should_write_session_changed_by_async_route() throws Exception {
+        RestxSessionCookieFilter filter = filter(JSON_COOKIES);
+        RestxRoute route = route(new MatchedEntityRoute<Void, Object>() {
+            @Override
+            public Optional<Object> route(RestxRequest request, RestxRequestMatch match, Void input) {
+                RestxSession.current().define(String.class, "lang", "fr");
+                return Optional.<Object>of(Futures.immediateFuture("ok"));
+            }
+        });
+        final SuspendingAsyncSupport asyncSupport = new SuspendingAsyncSupport();
+        RestxRequest request = new RestxRequestWrapper(StdRequest.builder()
+                .setBaseUri("http://localhost:8080/api").setRestxPath("/lang").build()) {
+            @Override
+            public Optional<RestxAsyncSupport> getAsyncSupport() {
+                return Optional.<RestxAsyncSupport>of(asyncSupport);
+            }
+        };
+        TestRestxResponse response = new TestRestxResponse();
+
+        handle(filter, route, request, response);
+        assertThat(asyncSupport.isSuspended()).isTrue();
+        assertThat(RestxSession.current()).isNull();
+
+        // as servers do, the continuation is called once the routing has returned
+        asyncSupport.continuation.resume();
+
+        assertThat(response.content()).isEqualTo("ok");
+        assertThat(response.cookies().get("RestxSession")).contains("\"lang\":\"fr\"");
+        assertThat(response.cookies().get("RestxSessionSignature")).isNotEmpty();
+        assertThat(RestxSession.current()).isNull();
+    }
+
+    private static final MatchedEntityRoute<Void, Object> DEFINE_LANG = new MatchedEntityRoute<Void, Object>() {
+        @Override
+        public Optional<Object> route(RestxRequest request, RestxRequestMatch match, Void input) {
+            RestxSession.current().define(String.class, "lang", "fr");
+            return Optional.<Object>of("ok");
+        }
+    };
+
+    private static RestxRequest request(Map<String, String> cookies) {
+        return StdRequest.builder().setBaseUri("http://localhost:8080/api").setRestxPath("/lang")
+                .setCookiesMap(ImmutableMap.copyOf(cookies)).build();
+    }
+
+    private static RestxSessionCookieFilter filter(RestxSessionCookieDescriptor cookieDescriptor) {
+        return new RestxSessionCookieFilter(
+                new RestxSession.Definition(new GuavaEntryCacheManager(),
+                        ImmutableList.<RestxSession.Definition.Entry>of(new DefaultSessionDefinitionEntry<>(
+                                String.class, "lang", new Function<String, Optional<? extends String>>() {
+                                    @Override
+                                    public Optional<? extends String> apply(String lang) {
+                                        return Optional.of(lang);
+                                    }
+                                }))),
+                new ObjectMapper(),
+                new DefaultCookieSigner(Optional.<SignatureKey>absent()),
+                new PermissionFactory(),
+                cookieDescriptor,
+                new SecurityModule.SecuritySettings() {
+                    @Override
+                    public int sessionsLimit() {
+                        return 100;
+                    }
+
+                    @Override
+                    public int sessionCookiesCacheSize() {
+                        return 100;
+                    }
+                });
+    }
+
+    private static RestxRoute route(MatchedEntityRoute<Void, Object> route) {
+        return StdEntityRoute.<Void, Object>builder()
+                .name("lang")
+                .endpoint(Endpoint.of("GET", "/lang"))
+                .entityResponseWriter(new AbstractEntityResponseWriter<Object>(String.class, "text/plain") {
+                    @Override
+                    protected void write(Object value, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                            throws IOException {
+                        resp.getOutputStream().write(String.valueOf(value).getBytes("UTF-8"));
+                    }
+                })
+                .matchedEntityRoute(route)
+                .build();
+    }
+
+    private static void handle(RestxSessionCookieFilter filter, RestxRoute route,
+                               RestxRequest request, RestxResponse response) throws IOException {
+        RestxContext context = new RestxContext(RestxContext.Modes.PROD, RouteLifecycleListener.DEAF,
+                ImmutableList.of(filter.match(route).get(), route.match(request).get()));
+        context.nextHandlerMatch().handle(request, response, context);
+    }
+
+    private static class SuspendingAsyncSupport implements RestxAsyncSupport {
+        private Continuation continuation;
+
+        @Override
+        public void suspend(ListenableFuture<?> future, Continuation continuation) {
+            this.continuation = continuation;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return continuation != null;
+        }
+
+        @Override
+        public void onResume(Completion completion) {
+        }
+
+        @Override
+        public void addCompletionListener(Runnable listener) {
+        }
+    }
+}
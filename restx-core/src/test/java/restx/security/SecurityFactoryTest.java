@@ -44,5 +44,14 @@ public class SecurityFactoryTest {
         RestxSessionCookieDescriptor cookieDescriptor = new SecurityFactory().restxSessionCookieDescriptor(Optional.fromNullable(this.appName));
         assertThat(cookieDescriptor.getCookieName(), is(equalTo(this.expectedCookieName)));
         assertThat(cookieDescriptor.getCookieSignatureName(), is(equalTo(this.expectedCookieSignatureName)));
+        assertThat(cookieDescriptor.getEncoding(), is(equalTo(RestxSessionCookieDescriptor.Encoding.JSON)));
+    }
+
+    @Test
+    public void should_read_cookie_encoding(){
+        RestxSessionCookieDescriptor cookieDescriptor = new SecurityFactory().restxSessionCookieDescriptor(
+                Optional.fromNullable(this.appName), Optional.of("binary"));
+        assertThat(cookieDescriptor.getCookieName(), is(equalTo(this.expectedCookieName)));
+        assertThat(cookieDescriptor.getEncoding(), is(equalTo(RestxSessionCookieDescriptor.Encoding.BINARY)));
     }
 }
@@ -47,4 +47,15 @@ public class SessionsTest {
         sessions.touch("k4", ImmutableMap.<String, String>of());
         assertThat(sessions.getAll()).containsKeys("k2", "k4").hasSize(2);
     }
+
+    @Test
+    public void should_stay_within_limit_with_many_sessions() throws Exception {
+        Sessions sessions = new Sessions(2000);
+        for (int i = 0; i < 100000; i++) {
+            sessions.touch("k" + i, ImmutableMap.<String, String>of());
+        }
+        assertThat(sessions.getAll().size()).isLessThanOrEqualTo(2000);
+        assertThat(sessions.get("k99999").isPresent()).isTrue();
+        assertThat(sessions.get("k0").isPresent()).isFalse();
+    }
 }
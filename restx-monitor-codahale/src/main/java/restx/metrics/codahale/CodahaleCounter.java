@@ -0,0 +1,35 @@
+package restx.metrics.codahale;
+
+import restx.common.metrics.api.Counter;
+
+public class CodahaleCounter implements Counter {
+    com.codahale.metrics.Counter codahaleCounter;
+
+    public CodahaleCounter(com.codahale.metrics.Counter codahaleCounter) {
+        this.codahaleCounter = codahaleCounter;
+    }
+
+    @Override
+    public void inc() {
+        codahaleCounter.inc();
+    }
+
+    @Override
+    public void inc(long n) {
+        codahaleCounter.inc(n);
+    }
+
+    @Override
+    public void dec() {
+        codahaleCounter.dec();
+    }
+
+    @Override
+    public long getCount() {
+        return codahaleCounter.getCount();
+    }
+
+    public com.codahale.metrics.Counter getCodahaleCounter() {
+        return codahaleCounter;
+    }
+}
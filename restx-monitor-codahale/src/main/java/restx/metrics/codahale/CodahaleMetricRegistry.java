@@ -1,5 +1,7 @@
 package restx.metrics.codahale;
 
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.Gauge;
 import restx.common.metrics.api.MetricRegistry;
 import restx.common.metrics.api.Timer;
 
@@ -12,6 +14,24 @@ public class CodahaleMetricRegistry implements MetricRegistry{
         return new CodahaleTimer(timer);
     }
 
+    @Override
+    public Counter counter(String name) {
+        com.codahale.metrics.Counter counter = codahaleMetricRegistry.counter(name);
+        return new CodahaleCounter(counter);
+    }
+
+    @Override
+    public synchronized <T> void gauge(String name, final Gauge<T> gauge) {
+        // codahale registry refuses to register a metric twice, which happens when a component is built again
+        codahaleMetricRegistry.remove(name);
+        codahaleMetricRegistry.register(name, new com.codahale.metrics.Gauge<T>() {
+            @Override
+            public T getValue() {
+                return gauge.getValue();
+            }
+        });
+    }
+
     public com.codahale.metrics.MetricRegistry getCodahaleMetricRegistry() {
         return codahaleMetricRegistry;
     }
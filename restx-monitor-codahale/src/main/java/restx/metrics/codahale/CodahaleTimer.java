@@ -3,6 +3,8 @@ package restx.metrics.codahale;
 import restx.common.metrics.api.Monitor;
 import restx.common.metrics.api.Timer;
 
+import java.util.concurrent.TimeUnit;
+
 public class CodahaleTimer implements Timer {
     com.codahale.metrics.Timer codahaleTimer;
 
@@ -15,6 +17,11 @@ public class CodahaleTimer implements Timer {
         return new CodahaleMonitor(codahaleTimer.time());
     }
 
+    @Override
+    public void update(long duration, TimeUnit unit) {
+        codahaleTimer.update(duration, unit);
+    }
+
     public com.codahale.metrics.Timer getCodahaleTimer() {
         return codahaleTimer;
     }
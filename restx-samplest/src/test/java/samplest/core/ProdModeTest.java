@@ -52,7 +52,18 @@ public class ProdModeTest {
         });
 
         assertThat(timers.size()).isEqualTo(1);
-        assertThat(timers.firstKey()).isEqualTo("<HTTP> GET /params/path/v1*/v2/35v4/v5");
+        assertThat(timers.firstKey()).isEqualTo("<HTTP> GET /params/path/{a}/{_b}/{c}{d}/{e}");
+
+        // timers are keyed by route, so another request on the same route uses the same timer
+        httpRequest = server.client().authenticatedAs("admin").GET(
+                "/api/params/path/v1/v2/36v4/v5");
+        assertThat(httpRequest.code()).isEqualTo(200);
+        assertThat(registry.getTimers(new MetricFilter() {
+            @Override
+            public boolean matches(String name, Metric metric) {
+                return name.indexOf("<HTTP> GET /params/path/") != -1;
+            }
+        }).size()).isEqualTo(1);
 
         // and now we check a MBean has been created for that timer too.
         // the name of the MBean is escaped, so it is enclosed in quotes: "
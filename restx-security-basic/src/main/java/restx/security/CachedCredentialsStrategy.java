@@ -0,0 +1,107 @@
+package restx.security;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import restx.common.MacPool;
+import restx.common.metrics.api.Counter;
+import restx.common.metrics.api.Gauge;
+import restx.common.metrics.api.MetricRegistry;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A CredentialsStrategy caching the successful credentials checks of another strategy, typically a
+ * BCryptCredentialsStrategy, whose checks are costly on purpose.
+ *
+ * Clients using http basic authentication send their credentials with each request: with this strategy, they are
+ * fully checked once per restx.security.credentialsCache.ttl only. To use it, wrap the strategy given to the
+ * StdUserService:
+ * <pre>
+ *     new StdUserService&lt;&gt;(repository,
+ *          new CachedCredentialsStrategy(new BCryptCredentialsStrategy(), securitySettings, metrics),
+ *          adminPasswordHash);
+ * </pre>
+ *
+ * Provided passwords are never kept in memory: entries are keyed by an HMAC of the user name, the provided password
+ * hash and the stored credentials, with a random key generated at startup. As the stored credentials are part of the
+ * key, changing the credentials of a user in the repository invalidates the cached checks of the previous ones.
+ *
+ * Hits and misses are counted in the metric registry, under the "&lt;CREDENTIALS_CACHE&gt;" prefix.
+ */
+public class CachedCredentialsStrategy implements CredentialsStrategy {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final CredentialsStrategy delegate;
+    private final MacPool macs;
+    private final Cache<String, Boolean> verifiedCredentials;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachedCredentialsStrategy(CredentialsStrategy delegate, SecuritySettings settings, MetricRegistry metrics) {
+        this.delegate = delegate;
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.macs = new MacPool(HMAC_ALGORITHM, new SecretKeySpec(keyBytes, HMAC_ALGORITHM), MacPool.DEFAULT_MAX_IDLE);
+        this.verifiedCredentials = CacheBuilder.newBuilder()
+                .maximumSize(settings.credentialsCacheSize())
+                .expireAfterWrite(settings.credentialsCacheTTL(), TimeUnit.SECONDS)
+                .build();
+        this.hits = metrics.counter("<CREDENTIALS_CACHE> hits");
+        this.misses = metrics.counter("<CREDENTIALS_CACHE> misses");
+        metrics.gauge("<CREDENTIALS_CACHE> hitRate", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                long total = hits.getCount() + misses.getCount();
+                return total == 0 ? 0d : (double) hits.getCount() / total;
+            }
+        });
+    }
+
+    @Override
+    public boolean checkCredentials(String userName, String providedPasswordHash, String storedCredentials) {
+        String cacheKey = cacheKey(userName, providedPasswordHash, storedCredentials);
+        if (verifiedCredentials.getIfPresent(cacheKey) != null) {
+            hits.inc();
+            return true;
+        }
+
+        misses.inc();
+        // only successful checks are cached, so that wrong credentials are always fully checked
+        boolean valid = delegate.checkCredentials(userName, providedPasswordHash, storedCredentials);
+        if (valid) {
+            verifiedCredentials.put(cacheKey, Boolean.TRUE);
+        }
+        return valid;
+    }
+
+    @Override
+    public String cryptCredentialsForStorage(String userName, String providedPasswordHash) {
+        return delegate.cryptCredentialsForStorage(userName, providedPasswordHash);
+    }
+
+    /**
+     * Discards all the cached credentials checks, eg when users credentials are changed outside of the repository.
+     */
+    public void invalidateAll() {
+        verifiedCredentials.invalidateAll();
+    }
+
+    private String cacheKey(String userName, String providedPasswordHash, String storedCredentials) {
+        Mac mac = macs.borrow();
+        try {
+            mac.update(userName.getBytes(Charsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(providedPasswordHash.getBytes(Charsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(storedCredentials.getBytes(Charsets.UTF_8));
+            return BaseEncoding.base64().encode(mac.doFinal());
+        } finally {
+            macs.release(mac);
+        }
+    }
+}
@@ -13,4 +13,13 @@ public interface SecuritySettings {
             doc = "the duration in days during which authentication should be remembered " +
                     "when using rememberme feature with StdBasicPrincipalAuthenticator")
     int rememberMeDuration();
+
+    @SettingsKey(key = "restx.security.credentialsCache.ttl", defaultValue = "300",
+            doc = "the duration in seconds during which a successful credentials check is cached " +
+                    "when using CachedCredentialsStrategy")
+    int credentialsCacheTTL();
+
+    @SettingsKey(key = "restx.security.credentialsCache.size", defaultValue = "1000",
+            doc = "the maximum number of successful credentials checks cached when using CachedCredentialsStrategy")
+    int credentialsCacheSize();
 }
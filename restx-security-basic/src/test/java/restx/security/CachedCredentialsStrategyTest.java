@@ -0,0 +1,60 @@
+package restx.security;
+
+import org.junit.Test;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachedCredentialsStrategyTest {
+    private final AtomicInteger checks = new AtomicInteger();
+    private final CachedCredentialsStrategy strategy = new CachedCredentialsStrategy(new CredentialsStrategy() {
+        @Override
+        public boolean checkCredentials(String userName, String providedPasswordHash, String storedCredentials) {
+            checks.incrementAndGet();
+            return storedCredentials.equals("crypted:" + providedPasswordHash);
+        }
+
+        @Override
+        public String cryptCredentialsForStorage(String userName, String providedPasswordHash) {
+            return "crypted:" + providedPasswordHash;
+        }
+    }, new SecuritySettings() {
+        @Override
+        public int rememberMeDuration() {
+            return 30;
+        }
+
+        @Override
+        public int credentialsCacheTTL() {
+            return 300;
+        }
+
+        @Override
+        public int credentialsCacheSize() {
+            return 100;
+        }
+    }, new DummyMetricRegistry());
+
+    @Test
+    public void should_check_valid_credentials_once() throws Exception {
+        assertThat(strategy.checkCredentials("user1", "pwd", "crypted:pwd")).isTrue();
+        assertThat(strategy.checkCredentials("user1", "pwd", "crypted:pwd")).isTrue();
+        assertThat(checks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_always_check_invalid_credentials() throws Exception {
+        assertThat(strategy.checkCredentials("user1", "wrong", "crypted:pwd")).isFalse();
+        assertThat(strategy.checkCredentials("user1", "wrong", "crypted:pwd")).isFalse();
+        assertThat(checks.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_check_again_when_stored_credentials_change() throws Exception {
+        assertThat(strategy.checkCredentials("user1", "pwd", "crypted:pwd")).isTrue();
+        assertThat(strategy.checkCredentials("user1", "pwd", "crypted:newpwd")).isFalse();
+        assertThat(checks.get()).isEqualTo(2);
+    }
+}
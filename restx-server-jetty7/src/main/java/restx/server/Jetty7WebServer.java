@@ -1,5 +1,6 @@
 package restx.server;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import org.eclipse.jetty.security.DefaultIdentityService;
 import org.eclipse.jetty.security.HashLoginService;
@@ -16,6 +17,8 @@ import org.eclipse.jetty.webapp.WebAppContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CountDownLatch;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 import static restx.common.MoreFiles.checkFileExists;
 
@@ -62,6 +65,11 @@ public class Jetty7WebServer extends WebServerBase {
     }
 
     protected ThreadPool createThreadPool() {
+        Optional<VirtualThreadExecutor> virtualThreadExecutor = virtualThreadExecutor();
+        if (virtualThreadExecutor.isPresent()) {
+            return new VirtualThreadPool(server, virtualThreadExecutor.get());
+        }
+
         QueuedThreadPool threadPool = new QueuedThreadPool();
         threadPool.setMinThreads(1);
         threadPool.setMaxThreads(Math.max(10, Runtime.getRuntime().availableProcessors()));
@@ -111,6 +119,63 @@ public class Jetty7WebServer extends WebServerBase {
         return ctx;
     }
 
+    /**
+     * A jetty thread pool dispatching jobs on virtual threads.
+     *
+     * Connectors dispatch their acceptor and selector jobs while the server is starting, and these jobs run until it
+     * stops: jobs dispatched before the server is started are run outside of the executor concurrency limit, which
+     * only applies to requests processing.
+     */
+    private static class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+        private final LifeCycle server;
+        private final VirtualThreadExecutor executor;
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        private VirtualThreadPool(LifeCycle server, VirtualThreadExecutor executor) {
+            this.server = server;
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean dispatch(Runnable job) {
+            if (!isRunning()) {
+                return false;
+            }
+            if (server.isStarted()) {
+                executor.execute(job);
+            } else {
+                executor.executeUnlimited(job);
+            }
+            return true;
+        }
+
+        @Override
+        public void join() throws InterruptedException {
+            stopped.await();
+        }
+
+        @Override
+        public int getThreads() {
+            return executor.getActiveCount();
+        }
+
+        @Override
+        public int getIdleThreads() {
+            return 0;
+        }
+
+        @Override
+        public boolean isLowOnThreads() {
+            return executor.isSaturated();
+        }
+
+        @Override
+        protected void doStop() throws Exception {
+            stopped.countDown();
+            super.doStop();
+        }
+    }
+
     public static WebServerSupplier jettyWebServerSupplier(final String webInfLocation, final String appBase) {
         return new WebServerSupplier() {
             @Override
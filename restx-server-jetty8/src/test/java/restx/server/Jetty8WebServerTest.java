@@ -0,0 +1,49 @@
+package restx.server;
+
+import com.github.kevinsawicki.http.HttpRequest;
+import com.google.common.base.Optional;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class Jetty8WebServerTest {
+    @Test
+    public void should_serve_requests_on_virtual_threads() throws Exception {
+        // a single permit: connector acceptor and selector jobs must not hold it
+        final Optional<VirtualThreadExecutor> executor = VirtualThreadExecutor.create("Jetty8WebServerTest-", 1);
+        assumeTrue("virtual threads are not supported by current java runtime", executor.isPresent());
+
+        WebServer server = new Jetty8WebServer("src/test/resources/restx/server/Jetty8WebServerTest-web.xml",
+                ".", WebServers.findAvailablePort(), "localhost") {
+            @Override
+            protected Optional<VirtualThreadExecutor> virtualThreadExecutor() {
+                return executor;
+            }
+        };
+        server.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                HttpRequest request = HttpRequest.get(server.baseUrl() + "/api/thread")
+                        .connectTimeout(5000).readTimeout(5000);
+
+                assertThat(request.code()).isEqualTo(200);
+                assertThat(request.body()).startsWith("VirtualThread[").contains("Jetty8WebServerTest-");
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    public static class ThreadServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            resp.getWriter().print(Thread.currentThread());
+        }
+    }
+}
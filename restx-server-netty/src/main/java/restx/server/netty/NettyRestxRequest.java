@@ -0,0 +1,243 @@
+package restx.server.netty;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import io.netty.handler.ssl.SslHandler;
+import restx.AbstractRequest;
+import restx.HttpSettings;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A RestxRequest on top of a netty aggregated http request.
+ *
+ * The request body is read from the (pooled) request content buffer, which is released by the server once the
+ * request is routed.
+ */
+public class NettyRestxRequest extends AbstractRequest {
+    private final String apiPath;
+    private final ChannelHandlerContext ctx;
+    private final FullHttpRequest request;
+    private final String restxPath;
+    private final String rawQuery;
+    private BufferedInputStream bufferedInputStream;
+    private ImmutableMap<String, ImmutableList<String>> queryParams;
+    private ImmutableMap<String, String> cookies;
+
+    public NettyRestxRequest(HttpSettings httpSettings, String apiPath,
+                             ChannelHandlerContext ctx, FullHttpRequest request) {
+        super(httpSettings);
+        this.apiPath = apiPath;
+        this.ctx = ctx;
+        this.request = request;
+
+        String uri = request.uri();
+        int queryIndex = uri.indexOf('?');
+        String path = (queryIndex == -1 ? uri : uri.substring(0, queryIndex)).substring(apiPath.length());
+        if (httpSettings.decodeURLPathParams()) {
+            try {
+                path = URLDecoder.decode(path, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+        this.restxPath = path;
+        this.rawQuery = queryIndex == -1 ? "" : uri.substring(queryIndex + 1);
+    }
+
+    @Override
+    protected String getBaseApiPath() {
+        return apiPath;
+    }
+
+    @Override
+    protected String getLocalScheme() {
+        return ctx.pipeline().get(SslHandler.class) != null ? "https" : "http";
+    }
+
+    @Override
+    protected String getLocalClientAddress() {
+        return ((InetSocketAddress) ctx.channel().remoteAddress()).getAddress().getHostAddress();
+    }
+
+    @Override
+    public String getRestxPath() {
+        return restxPath;
+    }
+
+    @Override
+    public String getRestxUri() {
+        return restxPath + (rawQuery.isEmpty() ? "" : "?" + rawQuery);
+    }
+
+    @Override
+    public String getHttpMethod() {
+        return request.method().name();
+    }
+
+    @Override
+    public Optional<String> getQueryParam(String param) {
+        ImmutableList<String> values = getQueryParams().get(param);
+        return values == null || values.isEmpty() ? Optional.<String>absent() : Optional.of(values.get(0));
+    }
+
+    @Override
+    public List<String> getQueryParams(String param) {
+        ImmutableList<String> values = getQueryParams().get(param);
+        return values == null ? Collections.<String>emptyList() : values;
+    }
+
+    @Override
+    public ImmutableMap<String, ImmutableList<String>> getQueryParams() {
+        if (queryParams == null) {
+            ImmutableMap.Builder<String, ImmutableList<String>> paramsBuilder = ImmutableMap.builder();
+            if (!rawQuery.isEmpty()) {
+                for (Map.Entry<String, List<String>> entry
+                        : new QueryStringDecoder(rawQuery, false).parameters().entrySet()) {
+                    paramsBuilder.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+                }
+            }
+            queryParams = paramsBuilder.build();
+        }
+        return queryParams;
+    }
+
+    @Override
+    public Optional<String> getHeader(String headerName) {
+        return Optional.fromNullable(request.headers().get(headerName));
+    }
+
+    @Override
+    public String getContentType() {
+        return request.headers().get(HttpHeaderNames.CONTENT_TYPE);
+    }
+
+    @Override
+    public ImmutableMap<String, String> getCookiesMap() {
+        if (cookies == null) {
+            Map<String, String> cookiesMap = new LinkedHashMap<>();
+            for (String header : request.headers().getAll(HttpHeaderNames.COOKIE)) {
+                for (Cookie cookie : ServerCookieDecoder.LAX.decode(header)) {
+                    cookiesMap.put(cookie.name(), cookie.wrap() ? unescape(cookie.value()) : cookie.value());
+                }
+            }
+            cookies = ImmutableMap.copyOf(cookiesMap);
+        }
+        return cookies;
+    }
+
+    @Override
+    public Optional<String> getCookieValue(String cookieName) {
+        return Optional.fromNullable(getCookiesMap().get(cookieName));
+    }
+
+    @Override
+    public boolean isPersistentCookie(String cookie) {
+        // request cookies don't carry their expiration
+        return false;
+    }
+
+    @Override
+    public InputStream getContentStream() throws IOException {
+        /*
+           maybe we could do this buffering only in dev mode?
+           It is used to be able to read data again in case of json processing error.
+         */
+        if (bufferedInputStream == null) {
+            bufferedInputStream = new BufferedInputStream(new ByteBufInputStream(request.content())) {
+                @Override
+                public void close() throws IOException {
+                    // NO OP, see #closeContentStream
+                }
+            };
+            bufferedInputStream.mark(10 * 1024);
+        }
+        return bufferedInputStream;
+    }
+
+    @Override
+    public void closeContentStream() throws IOException {
+        if (bufferedInputStream != null) {
+            bufferedInputStream.close();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz == FullHttpRequest.class || clazz == HttpRequest.class) {
+            return (T) request;
+        }
+        if (clazz == ChannelHandlerContext.class) {
+            return (T) ctx;
+        }
+        throw new IllegalArgumentException("underlying implementation is " + FullHttpRequest.class.getName()
+                + ", not " + clazz.getName());
+    }
+
+    @Override
+    public Locale getLocale() {
+        return getLocales().get(0);
+    }
+
+    @Override
+    public ImmutableList<Locale> getLocales() {
+        List<Locale> locales = new ArrayList<>();
+        String acceptLanguage = request.headers().get(HttpHeaderNames.ACCEPT_LANGUAGE);
+        if (acceptLanguage != null && !acceptLanguage.trim().isEmpty()) {
+            try {
+                for (Locale.LanguageRange range : Locale.LanguageRange.parse(acceptLanguage)) {
+                    if (!range.getRange().startsWith("*")) {
+                        locales.add(Locale.forLanguageTag(range.getRange()));
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // ill formed header, use default locale
+            }
+        }
+        if (locales.isEmpty()) {
+            locales.add(Locale.getDefault());
+        }
+        return ImmutableList.copyOf(locales);
+    }
+
+    /**
+     * Unescapes the quoted pairs of a quoted cookie value, as servlet containers do: netty only removes the
+     * surrounding quotes.
+     */
+    private static String unescape(String quotedValue) {
+        if (quotedValue.indexOf('\\') == -1) {
+            return quotedValue;
+        }
+        StringBuilder value = new StringBuilder(quotedValue.length());
+        for (int i = 0; i < quotedValue.length(); i++) {
+            char c = quotedValue.charAt(i);
+            if (c == '\\' && i + 1 < quotedValue.length()) {
+                c = quotedValue.charAt(++i);
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+}
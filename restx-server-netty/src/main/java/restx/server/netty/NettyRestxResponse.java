@@ -0,0 +1,240 @@
+package restx.server.netty;
+
+import com.google.common.base.Optional;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import io.netty.handler.ssl.SslHandler;
+import org.joda.time.Duration;
+import restx.AbstractResponse;
+import restx.RestxFileTransfer;
+import restx.RestxResponse;
+import restx.http.HttpStatus;
+import restx.security.RestxSessionCookieDescriptor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * A RestxResponse writing its content to the channel by chunks.
+ *
+ * The response content is written in buffers from the channel allocator (pooled by default), which are released by
+ * netty once written to the channel. Content fitting in a single chunk is sent as a full http response with a
+ * Content-Length header, larger content is sent as soon as each chunk is full, with a chunked transfer encoding unless
+ * the Content-Length header has been set. Explicit flushes of the content stream are ignored.
+ *
+ * Files can be sent without copying them to user space with getFileTransfer(), when the connection is not secured.
+ */
+public class NettyRestxResponse extends AbstractResponse<ChannelHandlerContext> {
+    static final int CHUNK_SIZE = 8192;
+
+    private final ChannelHandlerContext ctx;
+    private final boolean chunkedSupported;
+    private final HttpHeaders headers = new DefaultHttpHeaders();
+    private boolean keepAlive;
+    private HttpResponseStatus status = HttpResponseStatus.OK;
+    private ContentOutputStream content;
+    private boolean committed;
+    private DefaultFileRegion fileRegion;
+
+    public NettyRestxResponse(ChannelHandlerContext ctx, HttpRequest request) {
+        super(ChannelHandlerContext.class, ctx);
+        this.ctx = ctx;
+        this.chunkedSupported = !HttpVersion.HTTP_1_0.equals(request.protocolVersion());
+        this.keepAlive = HttpUtil.isKeepAlive(request);
+    }
+
+    @Override
+    public RestxResponse addCookie(String cookie, String value, RestxSessionCookieDescriptor cookieDescriptor, Duration expiration) {
+        DefaultCookie c = new DefaultCookie(cookie, value);
+        c.setPath("/");
+        if (expiration.getStandardSeconds() > 0) {
+            c.setMaxAge(expiration.getStandardSeconds());
+        }
+        if (cookieDescriptor.getDomain().isPresent()) {
+            c.setDomain(cookieDescriptor.getDomain().get());
+        }
+        if (cookieDescriptor.getSecure().isPresent()) {
+            c.setSecure(cookieDescriptor.getSecure().get().booleanValue());
+        }
+        headers.add(HttpHeaderNames.SET_COOKIE, ServerCookieEncoder.LAX.encode(c));
+        return this;
+    }
+
+    @Override
+    public RestxResponse clearCookie(String cookie, RestxSessionCookieDescriptor cookieDescriptor) {
+        DefaultCookie c = new DefaultCookie(cookie, "");
+        c.setPath("/");
+        c.setMaxAge(0);
+        if (cookieDescriptor.getDomain().isPresent()) {
+            c.setDomain(cookieDescriptor.getDomain().get());
+        }
+        if (cookieDescriptor.getSecure().isPresent()) {
+            c.setSecure(cookieDescriptor.getSecure().get().booleanValue());
+        }
+        headers.add(HttpHeaderNames.SET_COOKIE, ServerCookieEncoder.LAX.encode(c));
+        return this;
+    }
+
+    @Override
+    protected void doSetHeader(String headerName, String header) {
+        headers.set(headerName, header);
+    }
+
+    @Override
+    protected void doSetStatus(HttpStatus httpStatus) {
+        status = HttpResponseStatus.valueOf(httpStatus.getCode());
+    }
+
+    @Override
+    protected OutputStream doGetOutputStream() throws IOException {
+        if (content == null) {
+            content = new ContentOutputStream();
+        }
+        return content;
+    }
+
+    @Override
+    public Optional<RestxFileTransfer> getFileTransfer() {
+        if (ctx.pipeline().get(SslHandler.class) != null) {
+            // file regions are written to the socket as is, they can't go through the ssl handler
+            return Optional.absent();
+        }
+        return Optional.<RestxFileTransfer>of(new RestxFileTransfer() {
+            @Override
+            public void transferFile(Path file, long position, long count) throws IOException {
+                if (content != null || fileRegion != null) {
+                    throw new IllegalStateException("response content has already been written");
+                }
+                fileRegion = new DefaultFileRegion(file.toFile(), position, count);
+            }
+        });
+    }
+
+    @Override
+    protected void closeResponse() throws IOException {
+        if (fileRegion != null) {
+            closeFileRegionResponse();
+            return;
+        }
+
+        ByteBuf body = content == null ? Unpooled.EMPTY_BUFFER : content.takeBuffer();
+        ChannelFuture future;
+        if (committed) {
+            future = ctx.writeAndFlush(new DefaultLastHttpContent(body));
+        } else {
+            FullHttpResponse response = new DefaultFullHttpResponse(
+                    HttpVersion.HTTP_1_1, status, body, headers, EmptyHttpHeaders.INSTANCE);
+            HttpUtil.setContentLength(response, body.readableBytes());
+            HttpUtil.setKeepAlive(response, keepAlive);
+            future = ctx.writeAndFlush(response);
+        }
+        if (!keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    private void writeChunk(ByteBuf chunk) throws IOException {
+        if (!committed) {
+            HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status, headers);
+            if (!HttpUtil.isContentLengthSet(response)) {
+                if (chunkedSupported) {
+                    HttpUtil.setTransferEncodingChunked(response, true);
+                } else {
+                    // the end of the content can only be told by closing the connection
+                    keepAlive = false;
+                }
+            }
+            HttpUtil.setKeepAlive(response, keepAlive);
+            ctx.write(response);
+            committed = true;
+        }
+
+        ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(chunk));
+        if (!ctx.channel().isWritable()) {
+            // wait for the client to read content, rather than buffering the whole response in the channel
+            future.awaitUninterruptibly();
+            if (!future.isSuccess()) {
+                throw new IOException("error while writing response content", future.cause());
+            }
+        }
+    }
+
+    private void closeFileRegionResponse() {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status, headers);
+        HttpUtil.setContentLength(response, fileRegion.count());
+        HttpUtil.setKeepAlive(response, keepAlive);
+
+        // the file region is sent with FileChannel.transferTo by the event loop, and released once written
+        ctx.write(response);
+        ctx.write(fileRegion);
+        ChannelFuture future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        if (!keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Buffers content in a channel buffer, written to the channel as a chunk once CHUNK_SIZE bytes are buffered.
+     */
+    private class ContentOutputStream extends OutputStream {
+        private ByteBuf buffer;
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer().writeByte(b);
+            writeChunkIfFull();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int length = Math.min(len, CHUNK_SIZE - buffer().readableBytes());
+                buffer.writeBytes(b, off, length);
+                off += length;
+                len -= length;
+                writeChunkIfFull();
+            }
+        }
+
+        private ByteBuf buffer() {
+            if (buffer == null) {
+                buffer = ctx.alloc().buffer();
+            }
+            return buffer;
+        }
+
+        private void writeChunkIfFull() throws IOException {
+            if (buffer.readableBytes() >= CHUNK_SIZE) {
+                writeChunk(takeBuffer());
+            }
+        }
+
+        private ByteBuf takeBuffer() {
+            ByteBuf content = buffer == null ? Unpooled.EMPTY_BUFFER : buffer;
+            buffer = null;
+            return content;
+        }
+    }
+}
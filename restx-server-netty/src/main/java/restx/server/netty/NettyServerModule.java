@@ -0,0 +1,16 @@
+package restx.server.netty;
+
+import restx.factory.Module;
+import restx.factory.Provides;
+import restx.server.WebServerSupplier;
+
+import javax.inject.Named;
+
+@Module(priority = 1000)
+public class NettyServerModule {
+    @Provides
+    @Named("restx.server.netty")
+    public WebServerSupplier nettyWebServerSupplier(){
+        return NettyWebServer.nettyWebServerSupplier();
+    }
+}
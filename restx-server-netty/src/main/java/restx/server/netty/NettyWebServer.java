@@ -0,0 +1,288 @@
+package restx.server.netty;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import restx.HttpSettings;
+import restx.RestxMainRouter;
+import restx.RestxMainRouterFactory;
+import restx.factory.Factory;
+import restx.server.VirtualThreadExecutor;
+import restx.server.WebServer;
+import restx.server.WebServerBase;
+import restx.server.WebServerSupplier;
+import restx.server.WebServers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A web server based on netty event loops.
+ *
+ * Connections are handled by the event loops, requests are aggregated in pooled buffers and then routed on a worker
+ * executor, so that event loops are never blocked by the RESTX main router. The worker executor uses virtual threads
+ * when enabled (see HttpSettings#virtualThreads()), a fixed platform threads pool otherwise.
+ *
+ * Requests of a connection are routed one at a time, in order, so that pipelined requests are answered in the order
+ * they were sent.
+ */
+public abstract class NettyWebServer extends WebServerBase {
+    public static class NettyWebServerBuilder {
+        private int port;
+        private String routerPath = "/api";
+        private String bindInterface = "0.0.0.0";
+        private int workerThreads = Math.max(10, Runtime.getRuntime().availableProcessors());
+        private int maxContentLength = 10 * 1024 * 1024;
+        private RestxMainRouter router;
+
+        public NettyWebServerBuilder setPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public NettyWebServerBuilder setRouterPath(String routerPath) {
+            this.routerPath = routerPath;
+            return this;
+        }
+
+        public NettyWebServerBuilder setBindInterface(String bindInterface) {
+            this.bindInterface = bindInterface;
+            return this;
+        }
+
+        /**
+         * Sets the number of platform threads used to route requests, when virtual threads are not used.
+         */
+        public NettyWebServerBuilder setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of a request body, larger requests are rejected with a 413 status.
+         */
+        public NettyWebServerBuilder setMaxContentLength(int maxContentLength) {
+            this.maxContentLength = maxContentLength;
+            return this;
+        }
+
+        public NettyWebServerBuilder setRouter(RestxMainRouter router) {
+            this.router = router;
+            return this;
+        }
+
+        public NettyWebServer build() {
+            if (router == null) {
+                return new NettyWebServer(routerPath, port, bindInterface, workerThreads, maxContentLength) {
+                    @Override
+                    protected RestxMainRouter setupRouter() {
+                        return RestxMainRouterFactory.newInstance(
+                                serverId,
+                                Optional.of(WebServers.baseUri(bindInterface, port, routerPath)));
+                    }
+
+                    @Override
+                    public synchronized void stop() throws Exception {
+                        super.stop();
+
+                        RestxMainRouterFactory.clear(serverId);
+                    }
+                };
+            } else {
+                return new NettyWebServer(routerPath, port, bindInterface, workerThreads, maxContentLength) {
+                    @Override
+                    protected RestxMainRouter setupRouter() {
+                        return router;
+                    }
+                };
+            }
+        }
+    }
+
+    public static NettyWebServerBuilder builder() {
+        return new NettyWebServerBuilder();
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyWebServer.class);
+
+    private final String routerPath;
+    private final int workerThreads;
+    private final int maxContentLength;
+    private final HttpSettings httpSettings;
+
+    private RestxMainRouter router;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private ExecutorService workerThreadPool;
+    private Executor routingExecutor;
+    private Channel channel;
+    private CountDownLatch stopped = new CountDownLatch(1);
+
+    private NettyWebServer(String routerPath, int port, String bindInterface, int workerThreads, int maxContentLength) {
+        super(null, port, bindInterface, "Netty", "io.netty", "netty-codec-http");
+
+        this.routerPath = routerPath;
+        this.workerThreads = workerThreads;
+        this.maxContentLength = maxContentLength;
+        this.httpSettings = Factory.getInstance().getComponent(HttpSettings.class);
+    }
+
+    public RestxMainRouter getRouter() {
+        return router;
+    }
+
+    @Override
+    protected void _start() throws Exception {
+        logger.debug("starting web server");
+
+        router = setupRouter();
+        routingExecutor = createRoutingExecutor();
+        stopped = new CountDownLatch(1);
+
+        bossGroup = new NioEventLoopGroup(1);
+        workerGroup = new NioEventLoopGroup();
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(
+                                new HttpServerCodec(),
+                                new HttpObjectAggregator(maxContentLength),
+                                new RestxChannelHandler());
+                    }
+                });
+        channel = (bindInterface == null ? bootstrap.bind(port) : bootstrap.bind(bindInterface, port))
+                .sync().channel();
+    }
+
+    private Executor createRoutingExecutor() {
+        Optional<VirtualThreadExecutor> virtualThreadExecutor = virtualThreadExecutor();
+        if (virtualThreadExecutor.isPresent()) {
+            return virtualThreadExecutor.get();
+        }
+        return workerThreadPool = Executors.newFixedThreadPool(workerThreads,
+                new ThreadFactoryBuilder().setNameFormat(serverId + "-worker-%d").setDaemon(true).build());
+    }
+
+    protected abstract RestxMainRouter setupRouter();
+
+    @Override
+    public void await() throws InterruptedException {
+        stopped.await();
+    }
+
+    @Override
+    protected void _stop() throws Exception {
+        try {
+            channel.close().sync();
+        } finally {
+            bossGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully();
+            if (workerThreadPool != null) {
+                workerThreadPool.shutdown();
+            }
+            if (router instanceof AutoCloseable) {
+                ((AutoCloseable) router).close();
+            }
+            channel = null;
+            workerThreadPool = null;
+            stopped.countDown();
+        }
+    }
+
+    private void route(ChannelHandlerContext ctx, FullHttpRequest request) {
+        try {
+            if (!request.decoderResult().isSuccess()) {
+                sendError(ctx, HttpResponseStatus.BAD_REQUEST);
+            } else if (request.uri().startsWith(routerPath)) {
+                router.route(
+                        new NettyRestxRequest(httpSettings, routerPath, ctx, request),
+                        new NettyRestxResponse(ctx, request));
+            } else {
+                sendError(ctx, HttpResponseStatus.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            logger.error("error while routing " + request.uri(), e);
+            ctx.close();
+        } finally {
+            request.release();
+        }
+    }
+
+    private static void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
+        ByteBuf content = ByteBufUtil.writeUtf8(ctx.alloc(), status.reasonPhrase());
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
+        HttpUtil.setContentLength(response, content.readableBytes());
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    private class RestxChannelHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        // handlers are created for each connection
+        private final Executor connectionExecutor = MoreExecutors.newSequentialExecutor(routingExecutor);
+
+        private RestxChannelHandler() {
+            // requests are released once routed, on the routing executor
+            super(false);
+        }
+
+        @Override
+        protected void channelRead0(final ChannelHandlerContext ctx, final FullHttpRequest request) {
+            try {
+                connectionExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        route(ctx, request);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                request.release();
+                sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.debug("closing connection after error: " + cause.getMessage(), cause);
+            ctx.close();
+        }
+    }
+
+    public static WebServerSupplier nettyWebServerSupplier() {
+        return new WebServerSupplier() {
+            @Override
+            public WebServer newWebServer(int port) {
+                return NettyWebServer.builder().setPort(port).setBindInterface("0.0.0.0").build();
+            }
+        };
+    }
+}
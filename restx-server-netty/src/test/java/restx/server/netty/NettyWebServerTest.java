@@ -0,0 +1,138 @@
+package restx.server.netty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kevinsawicki.http.HttpRequest;
+import com.google.common.base.Optional;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import org.junit.Test;
+import restx.*;
+import restx.entity.MatchedEntityOutputRoute;
+import restx.entity.MatchedEntityRoute;
+import restx.http.HttpStatus;
+import restx.server.WebServers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NettyWebServerTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_handle_simple_routes() throws Exception {
+        NettyWebServer server = NettyWebServer.builder().setRouter(StdRestxMainRouter.builder()
+                .addRouter(RestxRouter.builder()
+                        .withMapper(mapper)
+                        .GET("/route1/{id}", Map.class, new MatchedEntityOutputRoute() {
+                            @Override
+                            public Optional route(RestxRequest restxRequest, RestxRequestMatch match) {
+                                return Optional.of(ImmutableMap.of("id", match.getPathParam("id"),
+                                        "q", restxRequest.getQueryParam("q").or("")));
+                            }
+                        })
+                        .PUT("/route4", Map.class, Map.class, new MatchedEntityRoute<Map, Map>() {
+                            @Override
+                            public Optional<Map> route(RestxRequest restxRequest, RestxRequestMatch match, Map input) throws IOException {
+                                input.put("size", input.size());
+                                return Optional.of(input);
+                            }
+                        })
+                        .build())
+                .build())
+                .setRouterPath("/api").setPort(WebServers.findAvailablePort()).build();
+        server.start();
+        try {
+            HttpRequest httpRequest = HttpRequest.get(server.baseUrl() + "/api/route1/xavier?q=test");
+            assertThat(httpRequest.code()).isEqualTo(200);
+            assertThat(httpRequest.body().trim()).isEqualTo("{\"id\":\"xavier\",\"q\":\"test\"}");
+
+            httpRequest = HttpRequest.put(server.baseUrl() + "/api/route4").send("{\"test\":\"val1\"}");
+            assertThat(httpRequest.code()).isEqualTo(200);
+            assertThat(httpRequest.body().trim()).isEqualTo("{\"test\":\"val1\",\"size\":1}");
+
+            httpRequest = HttpRequest.get(server.baseUrl() + "/api/unknown");
+            assertThat(httpRequest.code()).isEqualTo(HttpStatus.NOT_FOUND.getCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_stream_large_content_by_chunks() throws Exception {
+        final String value = Strings.repeat("restx", NettyRestxResponse.CHUNK_SIZE);
+        NettyWebServer server = start(RestxRouter.builder()
+                .withMapper(mapper)
+                .GET("/large", Map.class, new MatchedEntityOutputRoute() {
+                    @Override
+                    public Optional route(RestxRequest restxRequest, RestxRequestMatch match) {
+                        return Optional.of(ImmutableMap.of("value", value));
+                    }
+                })
+                .build());
+        try {
+            HttpRequest httpRequest = HttpRequest.get(server.baseUrl() + "/api/large");
+            assertThat(httpRequest.code()).isEqualTo(200);
+            assertThat(httpRequest.header("Transfer-Encoding")).isEqualTo("chunked");
+            assertThat(httpRequest.body().trim()).isEqualTo("{\"value\":\"" + value + "\"}");
+
+            httpRequest = HttpRequest.get(server.baseUrl() + "/api/unknown");
+            assertThat(httpRequest.header("Transfer-Encoding")).isNull();
+            assertThat(httpRequest.header("Content-Length")).isNotNull();
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_answer_pipelined_requests_in_order() throws Exception {
+        NettyWebServer server = start(RestxRouter.builder()
+                .withMapper(mapper)
+                .GET("/route/{id}", Map.class, new MatchedEntityOutputRoute() {
+                    @Override
+                    public Optional route(RestxRequest restxRequest, RestxRequestMatch match) {
+                        String id = match.getPathParam("id");
+                        if (id.equals("slow")) {
+                            try {
+                                Thread.sleep(300);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return Optional.of(ImmutableMap.of("id", id));
+                    }
+                })
+                .build());
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write((
+                    "GET /api/route/slow HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+                    "GET /api/route/fast HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(US_ASCII));
+            socket.getOutputStream().flush();
+
+            String responses = CharStreams.toString(new InputStreamReader(socket.getInputStream(), UTF_8));
+            assertThat(responses).contains("{\"id\":\"slow\"}").contains("{\"id\":\"fast\"}");
+            assertThat(responses.indexOf("{\"id\":\"slow\"}")).isLessThan(responses.indexOf("{\"id\":\"fast\"}"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static NettyWebServer start(RestxRouter router) throws Exception {
+        NettyWebServer server = NettyWebServer.builder()
+                .setRouter(StdRestxMainRouter.builder().addRouter(router).build())
+                .setRouterPath("/api").setPort(WebServers.findAvailablePort()).build();
+        server.start();
+        return server;
+    }
+}
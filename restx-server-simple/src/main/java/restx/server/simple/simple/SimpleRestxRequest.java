@@ -30,6 +30,7 @@ public class SimpleRestxRequest  extends AbstractRequest {
     private final Request request;
     private BufferedInputStream bufferedInputStream;
     private ImmutableMap<String, ImmutableList<String>> queryParams;
+    private ImmutableMap<String, String> cookies;
 
     public SimpleRestxRequest(HttpSettings httpSettings, String apiPath, Request request) {
         super(httpSettings);
@@ -108,11 +109,14 @@ public class SimpleRestxRequest  extends AbstractRequest {
 
     @Override
     public ImmutableMap<String, String> getCookiesMap() {
-        Map<String, String> cookies = Maps.newLinkedHashMap();
-        for (Cookie cookie : request.getCookies()) {
-            cookies.put(cookie.getName(), cookie.getValue().replace("\\\"", "\""));
+        if (cookies == null) {
+            Map<String, String> cookiesMap = Maps.newLinkedHashMap();
+            for (Cookie cookie : request.getCookies()) {
+                cookiesMap.put(cookie.getName(), cookie.getValue().replace("\\\"", "\""));
+            }
+            cookies = ImmutableMap.copyOf(cookiesMap);
         }
-        return ImmutableMap.copyOf(cookies);
+        return cookies;
     }
 
     @Override
@@ -17,6 +17,7 @@ import restx.factory.Factory;
 import restx.server.WebServer;
 import restx.server.WebServerBase;
 import restx.server.WebServerSupplier;
+import restx.server.VirtualThreadExecutor;
 import restx.server.WebServers;
 
 import java.io.IOException;
@@ -117,19 +118,20 @@ public abstract class SimpleWebServer extends WebServerBase {
 
         router = setupRouter();
 
+        final Optional<VirtualThreadExecutor> virtualThreadExecutor = virtualThreadExecutor();
         Container container = new Container() {
             @Override
-            public void handle(Request request, Response response) {
-                try {
-                    if (request.getTarget().startsWith(routerPath)) {
-                        router.route(
-                                new SimpleRestxRequest(httpSettings, routerPath, request), new SimpleRestxResponse(response));
-                    } else {
-                        response.getPrintStream().print("Not found...");
-                        response.getPrintStream().close();
-                    }
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
+            public void handle(final Request request, final Response response) {
+                if (virtualThreadExecutor.isPresent()) {
+                    // simple lets the response be completed asynchronously, once closed
+                    virtualThreadExecutor.get().execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            route(request, response);
+                        }
+                    });
+                } else {
+                    route(request, response);
                 }
             }
         };
@@ -140,6 +142,20 @@ public abstract class SimpleWebServer extends WebServerBase {
         connection.connect(address);
     }
 
+    private void route(Request request, Response response) {
+        try {
+            if (request.getTarget().startsWith(routerPath)) {
+                router.route(
+                        new SimpleRestxRequest(httpSettings, routerPath, request), new SimpleRestxResponse(response));
+            } else {
+                response.getPrintStream().print("Not found...");
+                response.getPrintStream().close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     protected abstract RestxMainRouter setupRouter();
 
     @Override
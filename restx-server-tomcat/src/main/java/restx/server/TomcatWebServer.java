@@ -1,11 +1,14 @@
 package restx.server;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.core.AprLifecycleListener;
 import org.apache.catalina.core.StandardServer;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +49,16 @@ public class TomcatWebServer extends WebServerBase {
         context.getServletContext().setInitParameter("restx.baseServerUri", baseUrl());
         context.getServletContext().setInitParameter("restx.serverId", serverId);
 
+        Optional<VirtualThreadExecutor> virtualThreadExecutor = virtualThreadExecutor();
+        if (virtualThreadExecutor.isPresent()) {
+            ProtocolHandler protocolHandler = tomcat.getConnector().getProtocolHandler();
+            if (protocolHandler instanceof AbstractProtocol) {
+                ((AbstractProtocol) protocolHandler).setExecutor(virtualThreadExecutor.get());
+            } else {
+                logger.warn("unable to use virtual threads with tomcat protocol handler {}", protocolHandler);
+            }
+        }
+
         tomcat.start();
     }
 
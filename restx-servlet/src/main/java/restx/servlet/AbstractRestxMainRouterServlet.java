@@ -14,6 +14,9 @@ import java.io.IOException;
  * User: xavierhanin
  * Date: 1/18/13
  * Time: 2:46 PM
+ *
+ * In a servlet 3 container, declare the servlet with async support to release container threads while routes
+ * returning futures are waiting for their result (see RestxAsyncSupport).
  */
 public class AbstractRestxMainRouterServlet extends HttpServlet {
     private RestxMainRouter mainRouter;
@@ -5,6 +5,7 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.*;
 import restx.AbstractRequest;
 import restx.HttpSettings;
+import restx.RestxAsyncSupport;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.http.Cookie;
@@ -28,6 +29,9 @@ public class HttpServletRestxRequest extends AbstractRequest {
     private final HttpServletRequest request;
     private BufferedInputStream bufferedInputStream;
     private ImmutableMap<String, ImmutableList<String>> queryParams;
+    private ImmutableMap<String, String> cookies;
+    private String restxPath;
+    private Optional<RestxAsyncSupport> asyncSupport;
 
     public HttpServletRestxRequest(HttpSettings httpSettings, HttpServletRequest request) {
         super(httpSettings);
@@ -51,6 +55,13 @@ public class HttpServletRestxRequest extends AbstractRequest {
 
     @Override
     public String getRestxPath() {
+        if (restxPath == null) {
+            restxPath = computeRestxPath();
+        }
+        return restxPath;
+    }
+
+    private String computeRestxPath() {
         String restxPath = request.getRequestURI().substring((getBaseApiPath()).length());
         if(this.httpSettings.decodeURLPathParams()) {
             try {
@@ -133,15 +144,18 @@ public class HttpServletRestxRequest extends AbstractRequest {
 
     @Override
     public ImmutableMap<String, String> getCookiesMap() {
-        Map<String, String> cookies = Maps.newLinkedHashMap();
-        Cookie[] requestCookies = request.getCookies();
-        if (requestCookies != null) {
-            for (int i = 0; i < requestCookies.length; i++) {
-                Cookie cookie = requestCookies[i];
-                cookies.put(cookie.getName(), cookie.getValue());
+        if (cookies == null) {
+            Map<String, String> cookiesMap = Maps.newLinkedHashMap();
+            Cookie[] requestCookies = request.getCookies();
+            if (requestCookies != null) {
+                for (int i = 0; i < requestCookies.length; i++) {
+                    Cookie cookie = requestCookies[i];
+                    cookiesMap.put(cookie.getName(), cookie.getValue());
+                }
             }
+            cookies = ImmutableMap.copyOf(cookiesMap);
         }
-        return ImmutableMap.copyOf(cookies);
+        return cookies;
     }
 
     @Override
@@ -199,6 +213,14 @@ public class HttpServletRestxRequest extends AbstractRequest {
         throw new IllegalArgumentException("underlying implementation is HttpServletRequest, not " + clazz.getName());
     }
 
+    @Override
+    public Optional<RestxAsyncSupport> getAsyncSupport() {
+        if (asyncSupport == null) {
+            asyncSupport = ServletAsyncSupport.of(request, httpSettings.asyncTimeout());
+        }
+        return asyncSupport;
+    }
+
     @Override
     public Locale getLocale() {
         return request.getLocale();
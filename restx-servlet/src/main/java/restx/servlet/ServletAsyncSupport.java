@@ -0,0 +1,194 @@
+package restx.servlet;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import restx.RestxAsyncSupport;
+import restx.WebException;
+import restx.http.HttpStatus;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servlet 3 async based RestxAsyncSupport.
+ *
+ * The request is put in async mode when suspended. Once the future is completed, the continuation is run on a
+ * container thread with AsyncContext.start(), and the async context is completed once the response is written.
+ *
+ * Requests taking more than the given timeout are answered with a 503, as well as requests whose connection fails
+ * while suspended are completed, so that they never hang.
+ *
+ * Note that the restx servlet has to be declared with async support (&lt;async-supported&gt;true&lt;/async-supported&gt;
+ * in web.xml) to use it, otherwise requests are processed synchronously.
+ */
+final class ServletAsyncSupport implements RestxAsyncSupport {
+    private static final Logger logger = LoggerFactory.getLogger(ServletAsyncSupport.class);
+
+    private static final boolean ASYNC_API_AVAILABLE = isAsyncApiAvailable();
+
+    /**
+     * Returns the async support for the given request, if the servlet container and the servlet support it.
+     *
+     * It is safe to call it in a servlet 2.5 container.
+     */
+    static Optional<RestxAsyncSupport> of(HttpServletRequest request, long timeout) {
+        if (ASYNC_API_AVAILABLE && request.isAsyncSupported()) {
+            return Optional.<RestxAsyncSupport>of(new ServletAsyncSupport(request, timeout));
+        }
+        return Optional.absent();
+    }
+
+    private static boolean isAsyncApiAvailable() {
+        try {
+            Class.forName("javax.servlet.AsyncContext", false, ServletAsyncSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private final HttpServletRequest request;
+    private final long timeout;
+    private final List<Runnable> completionListeners = new ArrayList<>();
+    private AsyncContext asyncContext;
+    private boolean suspended;
+    // the continuation to run, set once the future is completed, or the request timed out or failed
+    private Continuation outcome;
+    // set by the main router once the routing has returned
+    private Completion completion;
+    private boolean resumed;
+
+    private ServletAsyncSupport(HttpServletRequest request, long timeout) {
+        this.request = request;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void suspend(ListenableFuture<?> future, final Continuation continuation) {
+        asyncContext = request.startAsync();
+        asyncContext.setTimeout(timeout);
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                logger.warn("request {} timed out after {}ms", request.getRequestURI(), timeout);
+                // the async context must be completed by the listener, the continuation is run on the current thread
+                resume(new Continuation() {
+                    @Override
+                    public void resume() throws IOException {
+                        throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "request timed out");
+                    }
+                }, true);
+            }
+
+            @Override
+            public void onError(final AsyncEvent event) throws IOException {
+                resume(new Continuation() {
+                    @Override
+                    public void resume() throws IOException {
+                        throw new IOException("async request failed: " + event.getThrowable(), event.getThrowable());
+                    }
+                }, true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) throws IOException {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) throws IOException {
+            }
+        });
+        synchronized (this) {
+            suspended = true;
+        }
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                resume(continuation, false);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public synchronized boolean isSuspended() {
+        return suspended;
+    }
+
+    @Override
+    public void onResume(Completion completion) {
+        synchronized (this) {
+            this.completion = completion;
+        }
+        resume(null, false);
+    }
+
+    @Override
+    public synchronized void addCompletionListener(Runnable listener) {
+        completionListeners.add(listener);
+    }
+
+    /**
+     * Resumes the request once both its outcome is known and the routing has returned, only once.
+     */
+    private void resume(Continuation outcome, boolean onContainerThread) {
+        final Completion completion;
+        final Continuation continuation;
+        synchronized (this) {
+            if (this.outcome == null) {
+                this.outcome = outcome;
+            }
+            if (resumed || this.completion == null || this.outcome == null) {
+                return;
+            }
+            resumed = true;
+            completion = this.completion;
+            continuation = this.outcome;
+        }
+
+        Runnable complete = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    completion.complete(continuation);
+                } catch (RuntimeException e) {
+                    logger.error("unable to complete request " + request.getRequestURI() + ": " + e.getMessage(), e);
+                } finally {
+                    completed();
+                }
+            }
+        };
+        if (onContainerThread) {
+            complete.run();
+        } else {
+            asyncContext.start(complete);
+        }
+    }
+
+    private void completed() {
+        List<Runnable> listeners;
+        synchronized (this) {
+            listeners = new ArrayList<>(completionListeners);
+        }
+        for (int i = listeners.size() - 1; i >= 0; i--) {
+            try {
+                listeners.get(i).run();
+            } catch (RuntimeException e) {
+                logger.warn("completion listener of " + request.getRequestURI() + " failed: " + e.getMessage(), e);
+            }
+        }
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // the async context has already been completed by the container, probably because the connection failed
+            logger.debug("unable to complete request {}: {}", request.getRequestURI(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package restx.servlet;
+
+import com.github.kevinsawicki.http.HttpRequest;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.SettableFuture;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import restx.HttpSettings;
+import restx.HttpSettingsConfig;
+import restx.RestxContext;
+import restx.RestxFilter;
+import restx.RestxRequest;
+import restx.RestxRequestMatch;
+import restx.RestxResponse;
+import restx.RestxRoute;
+import restx.RestxRouteFilter;
+import restx.RestxRouting;
+import restx.StdRestxMainRouter;
+import restx.common.ConfigElement;
+import restx.common.StdRestxConfig;
+import restx.common.metrics.dummy.DummyMetricRegistry;
+import restx.endpoint.Endpoint;
+import restx.entity.AbstractEntityResponseWriter;
+import restx.entity.MatchedEntityRoute;
+import restx.entity.StdEntityRoute;
+import restx.factory.NamedComponent;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServletAsyncSupportTest {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger routed = new AtomicInteger();
+    private Server server;
+    private String baseUrl;
+
+    @Before
+    public void startServer() throws Exception {
+        final StdRestxMainRouter router = new StdRestxMainRouter(new DummyMetricRegistry(), new RestxRouting(
+                ImmutableList.<NamedComponent<RestxFilter>>of(),
+                ImmutableList.<NamedComponent<RestxRouteFilter>>of(),
+                ImmutableList.of(
+                        route("/ok", new MatchedEntityRoute<Void, Object>() {
+                            @Override
+                            public Optional<Object> route(RestxRequest request, RestxRequestMatch match, Void input) {
+                                return Optional.<Object>of(completeLater(executor, "hello", null));
+                            }
+                        }),
+                        route("/fail", new MatchedEntityRoute<Void, Object>() {
+                            @Override
+                            public Optional<Object> route(RestxRequest request, RestxRequestMatch match, Void input) {
+                                return Optional.<Object>of(completeLater(executor, null,
+                                        new RuntimeException("computation failed")));
+                            }
+                        }),
+                        route("/never", new MatchedEntityRoute<Void, Object>() {
+                            @Override
+                            public Optional<Object> route(RestxRequest request, RestxRequestMatch match, Void input) {
+                                return Optional.<Object>of(SettableFuture.create());
+                            }
+                        }))),
+                RestxContext.Modes.PROD);
+        final HttpSettings httpSettings = new HttpSettingsConfig(StdRestxConfig.of(ImmutableList.of(
+                ConfigElement.of("restx.http.asyncTimeout", "300"))));
+
+        server = new Server();
+        SelectChannelConnector connector = new SelectChannelConnector();
+        connector.setHost("localhost");
+        connector.setPort(0);
+        server.addConnector(connector);
+        ServletContextHandler context = new ServletContextHandler();
+        context.setContextPath("/");
+        ServletHolder holder = new ServletHolder(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                router.route(new HttpServletRestxRequest(httpSettings, req), new HttpServletRestxResponse(resp, req));
+            }
+        });
+        holder.setAsyncSupported(true);
+        context.addServlet(holder, "/api/*");
+        server.setHandler(context);
+        server.start();
+        baseUrl = "http://localhost:" + connector.getLocalPort() + "/api";
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void should_write_result_once_future_is_completed() throws Exception {
+        HttpRequest request = HttpRequest.get(baseUrl + "/ok");
+
+        assertThat(request.code()).isEqualTo(200);
+        assertThat(request.contentType()).startsWith("text/plain");
+        assertThat(request.body().trim()).isEqualTo("hello");
+        assertThat(routed.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_write_error_when_future_fails() throws Exception {
+        HttpRequest request = HttpRequest.get(baseUrl + "/fail");
+
+        assertThat(request.code()).isEqualTo(500);
+        assertThat(request.body()).contains("computation failed");
+        assertThat(routed.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_answer_503_on_timeout() throws Exception {
+        HttpRequest request = HttpRequest.get(baseUrl + "/never");
+
+        assertThat(request.code()).isEqualTo(503);
+        assertThat(request.body()).contains("request timed out");
+        assertThat(routed.get()).isEqualTo(1);
+    }
+
+    private RestxRoute route(String path, final MatchedEntityRoute<Void, Object> route) {
+        return StdEntityRoute.<Void, Object>builder()
+                .name(path)
+                .endpoint(Endpoint.of("GET", path))
+                .entityResponseWriter(new AbstractEntityResponseWriter<Object>(String.class, "text/plain") {
+                    @Override
+                    protected void write(Object value, RestxRequest req, RestxResponse resp, RestxContext ctx)
+                            throws IOException {
+                        resp.getWriter().print(value);
+                    }
+                })
+                .matchedEntityRoute(new MatchedEntityRoute<Void, Object>() {
+                    @Override
+                    public Optional<Object> route(RestxRequest request, RestxRequestMatch match, Void input)
+                            throws IOException {
+                        routed.incrementAndGet();
+                        return route.route(request, match, input);
+                    }
+                })
+                .build();
+    }
+
+    private static SettableFuture<String> completeLater(ScheduledExecutorService executor,
+                                                        final String value, final Exception error) {
+        final SettableFuture<String> future = SettableFuture.create();
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (error != null) {
+                    future.setException(error);
+                } else {
+                    future.set(value);
+                }
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        return future;
+    }
+}